@@ -0,0 +1,143 @@
+package com.oneofalternatives.accountapp.integration;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.Currency;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the streaming reader with the previous approach of materializing an {@link ObjectNode} and converting it
+ * again with {@link ObjectMapper#treeToValue}, on /list and /live payloads of about 170 currencies.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ExchangeRateHostResponseReaderBenchmark {
+
+    private static final int CURRENCY_COUNT = 170;
+    private static final Currency USD = Currency.getInstance("USD");
+    private static final Map<String, Currency> AVAILABLE_CURRENCIES =
+        Currency.getAvailableCurrencies()
+            .stream()
+            .collect(Collectors.toUnmodifiableMap(Currency::getCurrencyCode, Function.identity()));
+
+    private ObjectMapper objectMapper;
+    private ExchangeRateHostResponseReader responseReader;
+    private byte[] supportedCurrenciesPayload;
+    private byte[] quotesPayload;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        responseReader = new ExchangeRateHostResponseReader(objectMapper);
+
+        var currencies =
+            Currency.getAvailableCurrencies()
+                .stream()
+                .sorted(Comparator.comparing(Currency::getCurrencyCode))
+                .limit(CURRENCY_COUNT)
+                .toList();
+
+        supportedCurrenciesPayload =
+            currencies.stream()
+                .map(currency -> String.format("\"%s\": \"%s\"", currency.getCurrencyCode(), currency.getDisplayName()))
+                .collect(Collectors.joining(
+                    ",\n    ",
+                    """
+                        {
+                          "success": true,
+                          "terms": "https://currencylayer.com/terms",
+                          "privacy": "https://currencylayer.com/privacy",
+                          "currencies": {
+                            """,
+                    "\n  }\n}"
+                ))
+                .getBytes(StandardCharsets.UTF_8);
+
+        quotesPayload =
+            currencies.stream()
+                .map(currency -> String.format("\"USD%s\": %s", currency.getCurrencyCode(), 1 + currency.getNumericCode() / 997.0))
+                .collect(Collectors.joining(
+                    ",\n    ",
+                    """
+                        {
+                          "success": true,
+                          "terms": "https://currencylayer.com/terms",
+                          "privacy": "https://currencylayer.com/privacy",
+                          "timestamp": 1705267263,
+                          "source": "USD",
+                          "quotes": {
+                            """,
+                    "\n  }\n}"
+                ))
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Set<Currency> supportedCurrencies_streaming() {
+        return responseReader.readSupportedCurrencies(HttpStatus.OK, new ByteArrayInputStream(supportedCurrenciesPayload));
+    }
+
+    @Benchmark
+    public Set<Currency> supportedCurrencies_tree() throws IOException {
+        var bodyJson = objectMapper.readValue(supportedCurrenciesPayload, ObjectNode.class);
+
+        if (!bodyJson.get("success").asBoolean()) {
+            throw new IllegalStateException();
+        }
+
+        return
+            objectMapper.treeToValue(bodyJson, SupportedCurrencyListProjection.class)
+                .currencies()
+                .keySet()
+                .stream()
+                .map(AVAILABLE_CURRENCIES::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Benchmark
+    public Map<Currency, BigDecimal> quotes_streaming() {
+        return responseReader.readDirectRates(USD, HttpStatus.OK, new ByteArrayInputStream(quotesPayload));
+    }
+
+    @Benchmark
+    public Map<Currency, BigDecimal> quotes_tree() throws IOException {
+        var bodyJson = objectMapper.readValue(quotesPayload, ObjectNode.class);
+
+        if (!bodyJson.get("success").asBoolean()) {
+            throw new IllegalStateException();
+        }
+
+        return
+            objectMapper.treeToValue(bodyJson, QuotesProjection.class)
+                .quotes()
+                .entrySet()
+                .stream()
+                .filter(quote -> AVAILABLE_CURRENCIES.containsKey(quote.getKey().substring(3)))
+                .collect(Collectors.toUnmodifiableMap(
+                    quote -> AVAILABLE_CURRENCIES.get(quote.getKey().substring(3)),
+                    Map.Entry::getValue
+                ));
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record SupportedCurrencyListProjection(Boolean success, Map<String, String> currencies) { }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record QuotesProjection(Map<String, BigDecimal> quotes) { }
+}
@@ -0,0 +1,124 @@
+package com.oneofalternatives.accountapp.repository;
+
+import com.oneofalternatives.accountapp.api.TransactionHistoryRecordProjection;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reading the latest history page of an account with a single {@code sender OR receiver} condition and with
+ * {@link TransactionHistoryRepository} itself, which reads it as the {@code UNION ALL} of two index range scans. Runs
+ * on an in-memory H2 database with the same indexes as the application schema and {@code rowCount} transactions spread
+ * over {@code accountCount} accounts.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class TransactionHistoryQueryBenchmark {
+
+    private static final int ACCOUNT_ID = 42;
+    private static final int PAGE_SIZE = 20;
+
+    // same projection as the repository query, so only the way rows are found differs
+    private static final String OR_QUERY = """
+        SELECT
+            t.id,
+            CASE WHEN t.sender_account_id = :accountId THEN 'OUTBOUND' ELSE 'INBOUND' END AS direction,
+            CASE WHEN t.sender_account_id = :accountId THEN r.id ELSE s.id END AS peer_account_id,
+            CASE WHEN t.sender_account_id = :accountId THEN r.number ELSE s.number END AS peer_account_number,
+            CASE WHEN t.sender_account_id = :accountId THEN t.source_amount ELSE t.target_amount END AS amount,
+            CASE WHEN t.sender_account_id = :accountId THEN s.currency ELSE r.currency END AS currency,
+            t.transaction_date
+        FROM transaction t
+        JOIN account s ON s.id = t.sender_account_id
+        JOIN account r ON r.id = t.receiver_account_id
+        WHERE t.sender_account_id = :accountId OR t.receiver_account_id = :accountId
+        ORDER BY t.transaction_date DESC, t.id DESC
+        LIMIT :limit
+        """;
+
+    @Param({"1000000"})
+    public int rowCount;
+
+    @Param({"10000"})
+    public int accountCount;
+
+    private SingleConnectionDataSource dataSource;
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private TransactionHistoryRepository repository;
+
+    @Setup
+    public void setUp() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:transaction-history-benchmark", "sa", "", true);
+        jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        repository = new TransactionHistoryRepository(jdbcTemplate);
+
+        var ddl = jdbcTemplate.getJdbcTemplate();
+
+        ddl.execute("""
+            CREATE TABLE account (
+                id int PRIMARY KEY,
+                number varchar(50),
+                currency varchar(3)
+            )
+            """);
+        ddl.execute("""
+            INSERT INTO account
+            SELECT X, 'ACC-' || X, 'EUR'
+            FROM SYSTEM_RANGE(1, %d)
+            """.formatted(accountCount));
+        ddl.execute("""
+            CREATE TABLE transaction (
+                id int PRIMARY KEY,
+                sender_account_id int NOT NULL,
+                receiver_account_id int NOT NULL,
+                source_amount decimal(16, 10),
+                target_amount decimal(16, 10),
+                transaction_date timestamp(9)
+            )
+            """);
+        // every receiver differs from its sender, as transfers to the same account are rejected
+        ddl.execute("""
+            INSERT INTO transaction
+            SELECT
+                X,
+                MOD(X, %1$d) + 1,
+                MOD(MOD(X, %1$d) + 1 + MOD(X / %1$d, %1$d - 1), %1$d) + 1,
+                MOD(X, 1000) + 1,
+                MOD(X, 1000) + 1,
+                DATEADD(SECOND, X, TIMESTAMP '2020-01-01 00:00:00')
+            FROM SYSTEM_RANGE(1, %2$d)
+            """.formatted(accountCount, rowCount));
+        ddl.execute(
+            "CREATE INDEX transaction_sender_date_id_idx ON transaction (sender_account_id, transaction_date, id)");
+        ddl.execute(
+            "CREATE INDEX transaction_receiver_date_id_idx ON transaction (receiver_account_id, transaction_date, id)");
+        ddl.execute("ANALYZE");
+    }
+
+    @TearDown
+    public void tearDown() {
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public List<TransactionHistoryRecordProjection> orCondition() {
+        return
+            jdbcTemplate.query(
+                OR_QUERY,
+                new MapSqlParameterSource()
+                    .addValue("accountId", ACCOUNT_ID)
+                    .addValue("limit", PAGE_SIZE),
+                TransactionHistoryRepository.RECORD_MAPPER
+            );
+    }
+
+    @Benchmark
+    public List<TransactionHistoryRecordProjection> unionAllOfRangeScans() {
+        return repository.findLatestPage(ACCOUNT_ID, PAGE_SIZE);
+    }
+}
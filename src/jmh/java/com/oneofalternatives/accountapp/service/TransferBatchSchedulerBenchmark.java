@@ -0,0 +1,118 @@
+package com.oneofalternatives.accountapp.service;
+
+import com.oneofalternatives.accountapp.settings.AccountLockSettings;
+import com.oneofalternatives.accountapp.settings.TransferBatchSettings;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Compares registering a batch of transfers one by one, as a single ledger batch and as scheduled groups, each call
+ * holding the {@link AccountLockManager} stripes of its accounts. The ledger is simulated by one database round trip per
+ * call plus some work per transfer; {@code hotAccountShare} is the share of transfers going through one popular account.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class TransferBatchSchedulerBenchmark {
+
+    private static final int ACCOUNT_COUNT = 10_000;
+    private static final int HOT_ACCOUNT_ID = 0;
+    private static final long ROUND_TRIP_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+    private static final long TOKENS_PER_TRANSFER = 2_000;
+
+    @Param({"0.0", "0.1", "0.5"})
+    public double hotAccountShare;
+
+    @Param({"16", "1000"})
+    public int transferCount;
+
+    @Param({"4"})
+    public int parallelism;
+
+    private AccountLockManager accountLockManager;
+    private TransferBatchScheduler scheduler;
+    private List<Transfer> transfers;
+
+    @Setup
+    public void setUp() {
+        accountLockManager =
+            new AccountLockManager(new AccountLockSettings(64, Duration.ofSeconds(2)), new SimpleMeterRegistry());
+        scheduler = new TransferBatchScheduler(new TransferBatchSettings(parallelism, Integer.MAX_VALUE));
+
+        var random = new Random(42);
+        transfers = new ArrayList<>(transferCount);
+
+        for (var i = 0; i < transferCount; i++) {
+            var sender = 1 + random.nextInt(ACCOUNT_COUNT);
+            var receiver =
+                random.nextDouble() < hotAccountShare
+                    ? HOT_ACCOUNT_ID
+                    : 1 + random.nextInt(ACCOUNT_COUNT);
+
+            transfers.add(new Transfer(sender, receiver == sender ? HOT_ACCOUNT_ID : receiver));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        scheduler.close();
+    }
+
+    @Benchmark
+    public void sequentialTransfers(Blackhole blackhole) {
+        for (var transfer : transfers) {
+            blackhole.consume(register(List.of(transfer)));
+        }
+    }
+
+    @Benchmark
+    public List<Integer> singleBatch() {
+        return register(transfers);
+    }
+
+    @Benchmark
+    public List<Integer> scheduledBatch() {
+        return scheduler.execute(transfers, this::stripesOf, this::register);
+    }
+
+    private List<Integer> register(List<Transfer> group) {
+        var accountIds = group.stream().flatMap(transfer -> transfer.accountIds().stream()).toList();
+
+        return
+            accountLockManager.withLocks(accountIds, () -> {
+                LockSupport.parkNanos(ROUND_TRIP_NANOS);
+
+                var outcomes = new ArrayList<Integer>(group.size());
+
+                for (var transfer : group) {
+                    Blackhole.consumeCPU(TOKENS_PER_TRANSFER);
+                    outcomes.add(transfer.sender());
+                }
+
+                return outcomes;
+            });
+    }
+
+    private Collection<Integer> stripesOf(Transfer transfer) {
+        return List.of(accountLockManager.stripeOf(transfer.sender()), accountLockManager.stripeOf(transfer.receiver()));
+    }
+
+    private record Transfer(
+        int sender,
+        int receiver
+    ) {
+
+        List<Integer> accountIds() {
+            return List.of(sender, receiver);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.oneofalternatives.accountapp.api;
+
+import java.util.List;
+
+/**
+ * @param nextCursor opaque token to pass for the next page, {@code null} on the last page
+ */
+public record CursorPageProjection<T>(
+    List<T> content,
+    int pageSize,
+    int numberOfElements,
+    String nextCursor,
+    boolean isLast
+) { }
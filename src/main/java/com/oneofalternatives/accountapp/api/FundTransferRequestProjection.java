@@ -0,0 +1,9 @@
+package com.oneofalternatives.accountapp.api;
+
+import java.math.BigDecimal;
+
+public record FundTransferRequestProjection(
+    Integer senderAccountId,
+    Integer receiverAccountId,
+    BigDecimal amount
+) { }
@@ -0,0 +1,25 @@
+package com.oneofalternatives.accountapp.api;
+
+import java.math.BigDecimal;
+
+public record FundTransferResultProjection(
+    int index,
+    Status status,
+    Integer transactionId,
+    BigDecimal sourceAmount,
+    String error
+) {
+
+    public static FundTransferResultProjection succeeded(int index, Integer transactionId, BigDecimal sourceAmount) {
+        return new FundTransferResultProjection(index, Status.SUCCEEDED, transactionId, sourceAmount, null);
+    }
+
+    public static FundTransferResultProjection failed(int index, String error) {
+        return new FundTransferResultProjection(index, Status.FAILED, null, null, error);
+    }
+
+    public enum Status {
+        SUCCEEDED,
+        FAILED
+    }
+}
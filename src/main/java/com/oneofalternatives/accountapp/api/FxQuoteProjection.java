@@ -0,0 +1,17 @@
+package com.oneofalternatives.accountapp.api;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Currency;
+import java.util.UUID;
+
+public record FxQuoteProjection(
+    UUID quoteId,
+    Integer senderAccountId,
+    Integer receiverAccountId,
+    BigDecimal sourceAmount,
+    Currency sourceCurrency,
+    BigDecimal targetAmount,
+    Currency targetCurrency,
+    LocalDateTime expiresAt
+) { }
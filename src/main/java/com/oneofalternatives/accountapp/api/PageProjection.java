@@ -2,14 +2,18 @@ package com.oneofalternatives.accountapp.api;
 
 import java.util.List;
 
+/**
+ * @param totalPages    {@code null} unless totals were requested
+ * @param totalElements {@code null} unless totals were requested
+ */
 public record PageProjection<T>(
     List<T> content,
     long offset,
     int pageSize,
     int pageNumber,
-    int totalPages,
+    Integer totalPages,
     int numberOfElements,
-    long totalElements,
+    Long totalElements,
     boolean isFirst,
     boolean isLast
 ) {
@@ -0,0 +1,39 @@
+package com.oneofalternatives.accountapp.api;
+
+import com.oneofalternatives.accountapp.error.PaginationValidationError;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last transaction on a history page, handed to clients as an opaque URL-safe token.
+ */
+public record TransactionHistoryCursor(
+    LocalDateTime transactionDate,
+    Integer transactionId
+) {
+
+    private static final String SEPARATOR = "_";
+
+    public String encode() {
+        var position = transactionDate + SEPARATOR + transactionId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TransactionHistoryCursor decode(String cursor) {
+        try {
+            var position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            var separatorIndex = position.lastIndexOf(SEPARATOR);
+
+            return
+                new TransactionHistoryCursor(
+                    LocalDateTime.parse(position.substring(0, separatorIndex)),
+                    Integer.valueOf(position.substring(separatorIndex + 1))
+                );
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new PaginationValidationError("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package com.oneofalternatives.accountapp.controller;
 
+import com.oneofalternatives.accountapp.error.AccountLockTimeoutError;
 import com.oneofalternatives.accountapp.error.CurrencyExchangeResultInterpretationError;
 import com.oneofalternatives.accountapp.error.CurrencyExchangeServiceError;
 import com.oneofalternatives.accountapp.error.FundTransferValidationError;
+import com.oneofalternatives.accountapp.error.PaginationValidationError;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -14,9 +17,9 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExcep
 @ControllerAdvice
 public class AccountAppHandlerExceptionResolver extends ResponseEntityExceptionHandler {
 
-    @ExceptionHandler(FundTransferValidationError.class)
+    @ExceptionHandler({FundTransferValidationError.class, PaginationValidationError.class})
     protected ResponseEntity<Object> handleFundTransferException(
-        FundTransferValidationError exception,
+        RuntimeException exception,
         WebRequest request
     ) {
         return
@@ -43,4 +46,34 @@ public class AccountAppHandlerExceptionResolver extends ResponseEntityExceptionH
                 request
             );
     }
+
+    @ExceptionHandler(AccountLockTimeoutError.class)
+    protected ResponseEntity<Object> accountLockTimeoutError(
+        AccountLockTimeoutError exception,
+        WebRequest request
+    ) {
+        return
+            handleExceptionInternal(
+                exception,
+                exception.getMessage(),
+                new HttpHeaders(),
+                HttpStatus.SERVICE_UNAVAILABLE,
+                request
+            );
+    }
+
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    protected ResponseEntity<Object> concurrencyFailureError(
+        ConcurrencyFailureException exception,
+        WebRequest request
+    ) {
+        return
+            handleExceptionInternal(
+                exception,
+                "Account is busy with other transfers, try again later",
+                new HttpHeaders(),
+                HttpStatus.SERVICE_UNAVAILABLE,
+                request
+            );
+    }
 }
@@ -1,5 +1,9 @@
 package com.oneofalternatives.accountapp.controller;
 
+import com.oneofalternatives.accountapp.api.CursorPageProjection;
+import com.oneofalternatives.accountapp.api.FundTransferRequestProjection;
+import com.oneofalternatives.accountapp.api.FundTransferResultProjection;
+import com.oneofalternatives.accountapp.api.FxQuoteProjection;
 import com.oneofalternatives.accountapp.api.PageProjection;
 import com.oneofalternatives.accountapp.api.TransactionHistoryRecordProjection;
 import com.oneofalternatives.accountapp.model.Transaction;
@@ -13,10 +17,13 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import org.springframework.data.domain.Page;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.UUID;
 
 @RestController
 public class TransactionController {
@@ -48,7 +55,7 @@ public class TransactionController {
     @Operation(
         summary = "List transaction history by account ID",
         description = "Also returns the info of the other account participated in a transaction. Supports pagination." +
-            "Transactions are sorted descending (latest first)")
+            "Transactions are sorted descending (latest first). Totals are left empty unless includeTotal is true")
     @ApiResponses({
         @ApiResponse(
             responseCode = "200", description = "Page with transactions, may be empty if account doesn't have any transactions",
@@ -58,9 +65,60 @@ public class TransactionController {
     public PageProjection<TransactionHistoryRecordProjection> findTransactionsByAccountId(
         Integer accountId,
         int offset,
+        int limit,
+        @RequestParam(defaultValue = "true") boolean includeTotal
+    ) {
+        return transactionService.getTransactionHistoryByAccountId(accountId, offset, limit, includeTotal);
+    }
+
+    @Operation(
+        summary = "List transaction history by account ID using a cursor",
+        description =
+            """
+                Same records as the paginated history, latest first, but continues after the transaction encoded in the cursor
+                instead of skipping rows, so deep pages are as fast as the first one.
+                Pass the returned nextCursor to get the next page, omit it to get the latest transactions.""")
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200", description = "Page with transactions, may be empty if account doesn't have any transactions",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = CursorPageProjection.class))),
+        @ApiResponse(
+            responseCode = "400", description = "Invalid cursor or limit",
+            content = @Content(mediaType = "text/plain", schema = @Schema(implementation = String.class)))
+    })
+    @GetMapping(path = "/transaction/history/cursor")
+    public CursorPageProjection<TransactionHistoryRecordProjection> findTransactionsByAccountIdAndCursor(
+        Integer accountId,
+        @RequestParam(required = false) String cursor,
         int limit
     ) {
-        return transactionService.getTransactionHistoryByAccountId(accountId, offset, limit);
+        return transactionService.getTransactionHistoryByAccountIdAndCursor(accountId, cursor, limit);
+    }
+
+    @Operation(
+        summary = "Quote a transfer between two accounts",
+        description =
+            """
+                Converts the amount to the sender account currency and locks the rate until the quote expires.
+                Passing the quote ID to fund transfer skips the currency conversion service.""")
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200", description = "Quote issued",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = FxQuoteProjection.class))),
+        @ApiResponse(
+            responseCode = "400", description = "Input validation failed, details are given in the response",
+            content = @Content(mediaType = "text/plain", schema = @Schema(implementation = String.class))),
+        @ApiResponse(
+            responseCode = "503", description = "Currency conversion service error, details are given in the response",
+            content = @Content(mediaType = "text/plain", schema = @Schema(implementation = String.class)))
+    })
+    @PostMapping(path = "/transaction/quote")
+    public FxQuoteProjection quoteTransfer(
+        int senderAccountId,
+        int receiverAccountId,
+        BigDecimal amount
+    ) {
+        return transactionService.quoteTransfer(senderAccountId, receiverAccountId, amount);
     }
 
     @Operation(
@@ -68,7 +126,8 @@ public class TransactionController {
         description =
             """
                 Registers transaction and updates account balances.
-                If accounts have different currencies, uses currency conversion service.
+                If accounts have different currencies, uses the rate locked by the given quote,
+                or the currency conversion service when no quote is given.
                 Returns stored transaction entity.""")
     @ApiResponses({
         @ApiResponse(
@@ -85,8 +144,34 @@ public class TransactionController {
     public Transaction transferFunds(
         int senderAccountId,
         int receiverAccountId,
-        BigDecimal amount
+        BigDecimal amount,
+        @RequestParam(required = false) UUID quoteId
+    ) {
+        return
+            quoteId != null
+                ? transactionService.transferFunds(senderAccountId, receiverAccountId, amount, quoteId)
+                : transactionService.transferFunds(senderAccountId, receiverAccountId, amount);
+    }
+
+    @Operation(
+        summary = "Transfer funds in a batch",
+        description =
+            """
+                Validates and registers all transfers together, converting each currency pair once.
+                Transfers sharing an account are applied in the given order, the others in parallel.
+                Returns the outcome of every transfer in the given order, a failed transfer does not fail the batch.""")
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200", description = "Outcome of every transfer",
+            content = @Content(mediaType = "application/json", array = @ArraySchema(items = @Schema(implementation = FundTransferResultProjection.class)))),
+        @ApiResponse(
+            responseCode = "400", description = "Batch is larger than allowed",
+            content = @Content(mediaType = "text/plain", schema = @Schema(implementation = String.class)))
+    })
+    @PostMapping(path = "/transaction/fund-transfer/batch")
+    public List<FundTransferResultProjection> transferFundsInBatch(
+        @RequestBody List<FundTransferRequestProjection> transfers
     ) {
-        return transactionService.transferFunds(senderAccountId, receiverAccountId, amount);
+        return transactionService.transferFundsInBatch(transfers);
     }
 }
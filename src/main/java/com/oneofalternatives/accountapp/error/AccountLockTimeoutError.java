@@ -0,0 +1,8 @@
+package com.oneofalternatives.accountapp.error;
+
+public class AccountLockTimeoutError extends RuntimeException {
+
+    public AccountLockTimeoutError(String message) {
+        super(message);
+    }
+}
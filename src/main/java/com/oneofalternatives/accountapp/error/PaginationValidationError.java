@@ -0,0 +1,8 @@
+package com.oneofalternatives.accountapp.error;
+
+public class PaginationValidationError extends RuntimeException {
+
+    public PaginationValidationError(String message) {
+        super(message);
+    }
+}
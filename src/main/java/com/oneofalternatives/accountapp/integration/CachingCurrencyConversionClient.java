@@ -0,0 +1,177 @@
+package com.oneofalternatives.accountapp.integration;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.Duration;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Entries expire {@code timeToLive} after their rate was fetched, preloaded ones included; pairs requested again after
+ * {@code refreshAfter} are reloaded in the background.
+ */
+public class CachingCurrencyConversionClient implements CurrencyConversionClient {
+
+    private final CurrencyConversionClient delegate;
+    private final Ticker ticker;
+    private final LoadingCache<CurrencyPair, CachedRate> rates;
+
+    private volatile Duration timeToLive;
+
+    public CachingCurrencyConversionClient(
+        CurrencyConversionClient delegate,
+        CurrencyConversionCacheSettings settings
+    ) {
+        this(delegate, settings, Ticker.systemTicker(), ForkJoinPool.commonPool());
+    }
+
+    CachingCurrencyConversionClient(
+        CurrencyConversionClient delegate,
+        CurrencyConversionCacheSettings settings,
+        Ticker ticker,
+        Executor refreshExecutor
+    ) {
+        this.delegate = delegate;
+        this.ticker = ticker;
+        this.timeToLive = settings.timeToLive();
+        this.rates =
+            Caffeine.newBuilder()
+                .maximumSize(settings.maximumSize())
+                .expireAfter(new RateExpiry())
+                .refreshAfterWrite(settings.refreshAfter())
+                .ticker(ticker)
+                .executor(refreshExecutor)
+                .build(new RateLoader(delegate, ticker));
+    }
+
+    @Override
+    public Set<Currency> getSupportedCurrencies() {
+        return delegate.getSupportedCurrencies();
+    }
+
+    @Override
+    public BigDecimal getDirectRate(Currency fromCurrency, Currency toCurrency) {
+        var cachedRate = rates.get(CurrencyPair.of(fromCurrency, toCurrency));
+
+        return
+            cachedRate != null
+                ? cachedRate.rate()
+                : null;
+    }
+
+    @Override
+    public BigDecimal getReciprocalRate(Currency fromCurrency, Currency toCurrency) {
+        var cachedRate = rates.get(CurrencyPair.of(fromCurrency, toCurrency));
+
+        return
+            cachedRate != null
+                ? cachedRate.reciprocal()
+                : null;
+    }
+
+    @Override
+    public Map<Currency, BigDecimal> getDirectRates(Currency fromCurrency, Set<Currency> toCurrencies) {
+        var pairs =
+            toCurrencies.stream()
+                .map(toCurrency -> CurrencyPair.of(fromCurrency, toCurrency))
+                .collect(Collectors.toSet());
+
+        return
+            rates.getAll(pairs)
+                .entrySet()
+                .stream()
+                .collect(Collectors.toUnmodifiableMap(rate -> rate.getKey().toCurrency(), rate -> rate.getValue().rate()));
+    }
+
+    public void useExpiry(Duration timeToLive, Duration refreshAfter) {
+        this.timeToLive = timeToLive;
+
+        rates.policy().expireVariably().ifPresent(expiration ->
+            rates.asMap().forEach((pair, rate) ->
+                expiration.setExpiresAfter(pair, remainingLifetime(rate, ticker.read()), TimeUnit.NANOSECONDS)
+            )
+        );
+        rates.policy().refreshAfterWrite().ifPresent(refresh -> refresh.setRefreshesAfter(refreshAfter));
+    }
+
+    public void preload(CurrencyPair pair, BigDecimal rate, Duration age) {
+        rates.put(pair, CachedRate.of(rate, ticker.read() - age.toNanos()));
+    }
+
+    private long remainingLifetime(CachedRate rate, long currentTime) {
+        return Math.max(0, timeToLive.toNanos() - (currentTime - rate.fetchedAt()));
+    }
+
+    // fetchedAt is the ticker time at which the rate was fetched from the provider
+    private record CachedRate(BigDecimal rate, BigDecimal reciprocal, long fetchedAt) {
+
+        static CachedRate of(BigDecimal rate, long fetchedAt) {
+            return
+                rate != null
+                    ? new CachedRate(rate, BigDecimal.ONE.divide(rate, MathContext.DECIMAL128), fetchedAt)
+                    : null;
+        }
+    }
+
+    private class RateExpiry implements Expiry<CurrencyPair, CachedRate> {
+
+        @Override
+        public long expireAfterCreate(CurrencyPair pair, CachedRate rate, long currentTime) {
+            return remainingLifetime(rate, currentTime);
+        }
+
+        @Override
+        public long expireAfterUpdate(CurrencyPair pair, CachedRate rate, long currentTime, long currentDuration) {
+            return remainingLifetime(rate, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(CurrencyPair pair, CachedRate rate, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    private record RateLoader(
+        CurrencyConversionClient delegate,
+        Ticker ticker
+    ) implements CacheLoader<CurrencyPair, CachedRate> {
+
+        @Override
+        public CachedRate load(CurrencyPair pair) {
+            return CachedRate.of(delegate.getDirectRate(pair.fromCurrency(), pair.toCurrency()), ticker.read());
+        }
+
+        @Override
+        public Map<CurrencyPair, CachedRate> loadAll(Set<? extends CurrencyPair> pairs) {
+            var loaded = new HashMap<CurrencyPair, CachedRate>();
+
+            pairs.stream()
+                .collect(Collectors.groupingBy(
+                    CurrencyPair::fromCurrency,
+                    Collectors.mapping(CurrencyPair::toCurrency, Collectors.toSet())
+                ))
+                .forEach((fromCurrency, toCurrencies) -> {
+                    var rates = delegate.getDirectRates(fromCurrency, toCurrencies);
+                    var fetchedAt = ticker.read();
+
+                    rates.forEach((toCurrency, rate) ->
+                        loaded.put(CurrencyPair.of(fromCurrency, toCurrency), CachedRate.of(rate, fetchedAt))
+                    );
+                });
+
+            return loaded;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.oneofalternatives.accountapp.integration;
+
+import com.oneofalternatives.accountapp.error.CurrencyExchangeServiceError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Failed and rejected lookups are answered from the last fetched rates while those are younger than the maximum age.
+ */
+public class CircuitBreakingCurrencyConversionClient implements CurrencyConversionClient {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CircuitBreakingCurrencyConversionClient.class);
+
+    private final CurrencyConversionClient delegate;
+    private final CurrencyConversionCircuitBreakerSettings settings;
+    private final Clock clock;
+    private final Map<CurrencyPair, KnownRate> lastKnownGoodRates = new ConcurrentHashMap<>();
+    private final Counter rejectedCalls;
+    private final Counter lastKnownGoodRatesServed;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private Instant openedAt;
+
+    public CircuitBreakingCurrencyConversionClient(
+        CurrencyConversionClient delegate,
+        CurrencyConversionCircuitBreakerSettings settings,
+        MeterRegistry meterRegistry
+    ) {
+        this(delegate, settings, meterRegistry, Clock.systemUTC());
+    }
+
+    CircuitBreakingCurrencyConversionClient(
+        CurrencyConversionClient delegate,
+        CurrencyConversionCircuitBreakerSettings settings,
+        MeterRegistry meterRegistry,
+        Clock clock
+    ) {
+        this.delegate = delegate;
+        this.settings = settings;
+        this.clock = clock;
+        this.rejectedCalls =
+            Counter.builder("currency.converter.circuit.breaker.rejected")
+                .description("Calls not sent to the provider because the circuit breaker was open")
+                .register(meterRegistry);
+        this.lastKnownGoodRatesServed =
+            Counter.builder("currency.converter.last.known.good.served")
+                .description("Rate lookups answered from last known good rates instead of the provider")
+                .register(meterRegistry);
+
+        for (var gaugeState : State.values()) {
+            Gauge.builder("currency.converter.circuit.breaker.state", this, client -> client.isIn(gaugeState) ? 1 : 0)
+                .description("1 for the current circuit breaker state, 0 for the others")
+                .tag("state", gaugeState.name().toLowerCase())
+                .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public Set<Currency> getSupportedCurrencies() {
+        return call(delegate::getSupportedCurrencies, () -> null);
+    }
+
+    @Override
+    public BigDecimal getDirectRate(Currency fromCurrency, Currency toCurrency) {
+        var pair = CurrencyPair.of(fromCurrency, toCurrency);
+
+        return
+            call(
+                () -> {
+                    var rate = delegate.getDirectRate(fromCurrency, toCurrency);
+                    remember(pair, rate);
+                    return rate;
+                },
+                () -> lastKnownGoodRate(pair)
+            );
+    }
+
+    @Override
+    public Map<Currency, BigDecimal> getDirectRates(Currency fromCurrency, Set<Currency> toCurrencies) {
+        return
+            call(
+                () -> {
+                    var rates = delegate.getDirectRates(fromCurrency, toCurrencies);
+                    rates.forEach((toCurrency, rate) -> remember(CurrencyPair.of(fromCurrency, toCurrency), rate));
+                    return rates;
+                },
+                () -> lastKnownGoodRates(fromCurrency, toCurrencies)
+            );
+    }
+
+    private <T> T call(Supplier<T> request, Supplier<T> fallback) {
+        if (!tryAcquirePermission()) {
+            rejectedCalls.increment();
+            return
+                fallBack(
+                    fallback,
+                    new CurrencyExchangeServiceError("Currency exchange service is unavailable, circuit breaker is open")
+                );
+        }
+
+        var startedAt = clock.instant();
+        var succeeded = false;
+
+        // anything thrown, errors included, counts as a failure, so a trial call cannot leave the breaker half-open
+        try {
+            var result = request.get();
+            succeeded = Duration.between(startedAt, clock.instant()).compareTo(settings.slowCallThreshold()) <= 0;
+            return result;
+        } catch (RuntimeException e) {
+            return fallBack(fallback, e);
+        } finally {
+            if (succeeded) {
+                onSuccess();
+            } else {
+                onFailure();
+            }
+        }
+    }
+
+    private <T> T fallBack(Supplier<T> fallback, RuntimeException error) {
+        var result = fallback.get();
+
+        if (result == null) {
+            throw error;
+        }
+
+        lastKnownGoodRatesServed.increment();
+        return result;
+    }
+
+    private void remember(CurrencyPair pair, BigDecimal rate) {
+        lastKnownGoodRates.put(pair, new KnownRate(rate, clock.instant()));
+    }
+
+    private BigDecimal lastKnownGoodRate(CurrencyPair pair) {
+        var knownRate = lastKnownGoodRates.get(pair);
+
+        return
+            knownRate != null && isFresh(knownRate)
+                ? knownRate.rate()
+                : null;
+    }
+
+    private Map<Currency, BigDecimal> lastKnownGoodRates(Currency fromCurrency, Set<Currency> toCurrencies) {
+        var rates = new HashMap<Currency, BigDecimal>();
+
+        for (var toCurrency : toCurrencies) {
+            var rate = lastKnownGoodRate(CurrencyPair.of(fromCurrency, toCurrency));
+
+            if (rate == null) {
+                return null;
+            }
+
+            rates.put(toCurrency, rate);
+        }
+
+        return Map.copyOf(rates);
+    }
+
+    private boolean isFresh(KnownRate knownRate) {
+        return Duration.between(knownRate.fetchedAt(), clock.instant()).compareTo(settings.lastKnownGoodMaxAge()) <= 0;
+    }
+
+    private synchronized boolean tryAcquirePermission() {
+        return switch (state) {
+            case CLOSED -> true;
+            case HALF_OPEN -> false;
+            case OPEN -> {
+                if (Duration.between(openedAt, clock.instant()).compareTo(settings.openDuration()) < 0) {
+                    yield false;
+                }
+                LOGGER.info("Sending trial call to currency exchange service");
+                state = State.HALF_OPEN;
+                yield true;
+            }
+        };
+    }
+
+    private synchronized void onSuccess() {
+        consecutiveFailures = 0;
+
+        if (state != State.CLOSED) {
+            LOGGER.info("Currency exchange service recovered, closing circuit breaker");
+            state = State.CLOSED;
+        }
+    }
+
+    private synchronized void onFailure() {
+        consecutiveFailures++;
+
+        if (state == State.HALF_OPEN || state == State.CLOSED && consecutiveFailures >= settings.failureThreshold()) {
+            LOGGER.warn(
+                "Opening circuit breaker for {} after {} consecutive failed or slow calls",
+                settings.openDuration(),
+                consecutiveFailures
+            );
+            state = State.OPEN;
+            openedAt = clock.instant();
+        }
+    }
+
+    private synchronized boolean isIn(State expectedState) {
+        return state == expectedState;
+    }
+
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private record KnownRate(BigDecimal rate, Instant fetchedAt) { }
+}
@@ -0,0 +1,103 @@
+package com.oneofalternatives.accountapp.integration;
+
+import com.oneofalternatives.accountapp.error.CurrencyExchangeResultInterpretationError;
+import com.oneofalternatives.accountapp.settings.MoneySettings;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@code rate(A -> B) = rate(P -> B) / rate(P -> A)}, so only quotes of the pivot currency P are requested.
+ */
+public class CrossRateCurrencyConversionClient implements CurrencyConversionClient {
+
+    private final CurrencyConversionClient delegate;
+    private final Currency pivotCurrency;
+    private final MoneySettings moneySettings;
+
+    public CrossRateCurrencyConversionClient(
+        CurrencyConversionClient delegate,
+        Currency pivotCurrency,
+        MoneySettings moneySettings
+    ) {
+        this.delegate = delegate;
+        this.pivotCurrency = pivotCurrency;
+        this.moneySettings = moneySettings;
+    }
+
+    @Override
+    public Set<Currency> getSupportedCurrencies() {
+        return delegate.getSupportedCurrencies();
+    }
+
+    @Override
+    public BigDecimal getDirectRate(Currency fromCurrency, Currency toCurrency) {
+        return getDirectRates(fromCurrency, Set.of(toCurrency)).get(toCurrency);
+    }
+
+    @Override
+    public BigDecimal getReciprocalRate(Currency fromCurrency, Currency toCurrency) {
+        var pivotRates = getPivotRates(fromCurrency, Set.of(toCurrency));
+
+        // not rounded to the money scale, as it is multiplied by amounts
+        return
+            pivotRateOf(fromCurrency, pivotRates)
+                .divide(pivotRateOf(toCurrency, pivotRates), MathContext.DECIMAL128);
+    }
+
+    @Override
+    public Map<Currency, BigDecimal> getDirectRates(Currency fromCurrency, Set<Currency> toCurrencies) {
+        var pivotRates = getPivotRates(fromCurrency, toCurrencies);
+        var fromPivotRate = pivotRateOf(fromCurrency, pivotRates);
+
+        var rates = new HashMap<Currency, BigDecimal>();
+
+        for (var toCurrency : toCurrencies) {
+            rates.put(toCurrency, crossRate(fromPivotRate, pivotRateOf(toCurrency, pivotRates)));
+        }
+
+        return Map.copyOf(rates);
+    }
+
+    private Map<Currency, BigDecimal> getPivotRates(Currency fromCurrency, Set<Currency> toCurrencies) {
+        var quotedCurrencies = new HashSet<>(toCurrencies);
+        quotedCurrencies.add(fromCurrency);
+        quotedCurrencies.remove(pivotCurrency);
+
+        return
+            quotedCurrencies.isEmpty()
+                ? Map.of()
+                : delegate.getDirectRates(pivotCurrency, quotedCurrencies);
+    }
+
+    private BigDecimal pivotRateOf(Currency currency, Map<Currency, BigDecimal> pivotRates) {
+        if (currency.equals(pivotCurrency)) {
+            return BigDecimal.ONE;
+        }
+
+        return requireQuote(currency, pivotRates.get(currency));
+    }
+
+    private BigDecimal requireQuote(Currency currency, BigDecimal rate) {
+        if (rate == null) {
+            throw new CurrencyExchangeResultInterpretationError(
+                String.format(
+                    "Currency exchange service did not return a quote for %s%s",
+                    pivotCurrency.getCurrencyCode(),
+                    currency.getCurrencyCode()
+                )
+            );
+        }
+
+        return rate;
+    }
+
+    private BigDecimal crossRate(BigDecimal fromPivotRate, BigDecimal toPivotRate) {
+        return toPivotRate.divide(fromPivotRate, moneySettings.scale(), moneySettings.roundingMode());
+    }
+}
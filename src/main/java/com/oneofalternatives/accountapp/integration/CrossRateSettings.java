@@ -0,0 +1,11 @@
+package com.oneofalternatives.accountapp.integration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Currency;
+
+@ConfigurationProperties(prefix = "account-app.currency-converter.cross-rate")
+public record CrossRateSettings(
+    boolean enabled,
+    Currency pivotCurrency
+) { }
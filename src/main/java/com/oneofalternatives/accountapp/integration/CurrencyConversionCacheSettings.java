@@ -0,0 +1,13 @@
+package com.oneofalternatives.accountapp.integration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "account-app.currency-converter.cache")
+public record CurrencyConversionCacheSettings(
+    boolean enabled,
+    Duration timeToLive,
+    Duration refreshAfter,
+    long maximumSize
+) { }
@@ -0,0 +1,14 @@
+package com.oneofalternatives.accountapp.integration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "account-app.currency-converter.circuit-breaker")
+public record CurrencyConversionCircuitBreakerSettings(
+    boolean enabled,
+    int failureThreshold,
+    Duration slowCallThreshold,
+    Duration openDuration,
+    Duration lastKnownGoodMaxAge
+) { }
@@ -1,7 +1,9 @@
 package com.oneofalternatives.accountapp.integration;
 
 import java.math.BigDecimal;
+import java.math.MathContext;
 import java.util.Currency;
+import java.util.Map;
 import java.util.Set;
 
 public interface CurrencyConversionClient {
@@ -9,4 +11,14 @@ public interface CurrencyConversionClient {
     Set<Currency> getSupportedCurrencies();
 
     BigDecimal getDirectRate(Currency fromCurrency, Currency toCurrency);
+
+    Map<Currency, BigDecimal> getDirectRates(Currency fromCurrency, Set<Currency> toCurrencies);
+
+    /**
+     * Units of {@code fromCurrency} per unit of {@code toCurrency}, so amounts can be converted back by multiplying.
+     * Implementations holding rates in memory should precompute it.
+     */
+    default BigDecimal getReciprocalRate(Currency fromCurrency, Currency toCurrency) {
+        return BigDecimal.ONE.divide(getDirectRate(fromCurrency, toCurrency), MathContext.DECIMAL128);
+    }
 }
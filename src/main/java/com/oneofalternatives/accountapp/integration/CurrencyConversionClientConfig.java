@@ -0,0 +1,214 @@
+package com.oneofalternatives.accountapp.integration;
+
+import com.oneofalternatives.accountapp.repository.FxRateSnapshotRepository;
+import com.oneofalternatives.accountapp.settings.MoneySettings;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class CurrencyConversionClientConfig {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CurrencyConversionClientConfig.class);
+
+    @Bean
+    public FxRateSnapshotWriter fxRateSnapshotWriter(
+        JdbcTemplate jdbcTemplate,
+        FxRateSnapshotSettings snapshotSettings,
+        MeterRegistry meterRegistry
+    ) {
+        return new FxRateSnapshotWriter(jdbcTemplate, snapshotSettings, meterRegistry);
+    }
+
+    @Bean
+    public ProviderQuotaTracker providerQuotaTracker(
+        JdbcTemplate jdbcTemplate,
+        ProviderQuotaSettings quotaSettings,
+        MeterRegistry meterRegistry
+    ) {
+        return new ProviderQuotaTracker(jdbcTemplate, quotaSettings, meterRegistry);
+    }
+
+    // used only with more than one provider, so idle threads are let go
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService currencyConversionAttemptExecutor(CurrencyConversionHedgingSettings hedgingSettings) {
+        var threadFactory = new CustomizableThreadFactory("currency-conversion-");
+        threadFactory.setDaemon(true);
+
+        var executor =
+            new ThreadPoolExecutor(
+                hedgingSettings.maximumConcurrentAttempts(),
+                hedgingSettings.maximumConcurrentAttempts(),
+                1,
+                TimeUnit.MINUTES,
+                new SynchronousQueue<>(),
+                threadFactory
+            );
+        executor.allowCoreThreadTimeOut(true);
+
+        return executor;
+    }
+
+    @Bean
+    public SupportedCurrencyRegistry supportedCurrencyRegistry(
+        @CurrencyConversionProvider List<HedgingCurrencyConversionClient.Provider> providers,
+        CurrencyConversionHedgingSettings hedgingSettings,
+        ExecutorService currencyConversionAttemptExecutor,
+        CurrencyConversionCircuitBreakerSettings circuitBreakerSettings,
+        FxRateSnapshotSettings snapshotSettings,
+        FxRateSnapshotWriter snapshotWriter,
+        ProviderQuotaSettings quotaSettings,
+        ProviderQuotaTracker quotaTracker,
+        MeterRegistry meterRegistry
+    ) {
+        var namedProviders =
+            providers.stream()
+                .map(configured -> {
+                    var name = configured.name();
+                    var provider = configured.client();
+
+                    if (quotaSettings.enabled() && quotaSettings.providers().contains(name)) {
+                        provider = new QuotaCountingCurrencyConversionClient(provider, name, quotaTracker);
+                    }
+
+                    if (snapshotSettings.enabled()) {
+                        provider = new SnapshottingCurrencyConversionClient(provider, name, snapshotWriter);
+                    }
+
+                    return new HedgingCurrencyConversionClient.Provider(name, provider);
+                })
+                .toList();
+
+        CurrencyConversionClient client =
+            new SingleFlightCurrencyConversionClient(
+                combineProviders(namedProviders, hedgingSettings, currencyConversionAttemptExecutor, meterRegistry),
+                meterRegistry
+            );
+
+        if (circuitBreakerSettings.enabled()) {
+            LOGGER.info(
+                "Guarding currency exchange service with circuit breaker: {} failures or calls slower than {} open it for {}, "
+                    + "serving last known good rates up to {} old",
+                circuitBreakerSettings.failureThreshold(),
+                circuitBreakerSettings.slowCallThreshold(),
+                circuitBreakerSettings.openDuration(),
+                circuitBreakerSettings.lastKnownGoodMaxAge()
+            );
+
+            client = new CircuitBreakingCurrencyConversionClient(client, circuitBreakerSettings, meterRegistry);
+        }
+
+        return new SupportedCurrencyRegistry(client, meterRegistry);
+    }
+
+    private static CurrencyConversionClient combineProviders(
+        List<HedgingCurrencyConversionClient.Provider> providers,
+        CurrencyConversionHedgingSettings hedgingSettings,
+        ExecutorService executor,
+        MeterRegistry meterRegistry
+    ) {
+        if (providers.size() == 1) {
+            return providers.get(0).client();
+        }
+
+        LOGGER.info(
+            "Failing over between currency exchange rate providers {}, hedging {}",
+            providers.stream().map(HedgingCurrencyConversionClient.Provider::name).toList(),
+            hedgingSettings.enabled() ? "after p" + hedgingSettings.delayPercentile() + " latency" : "disabled"
+        );
+
+        return new HedgingCurrencyConversionClient(providers, hedgingSettings, executor, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public CurrencyConversionClient currencyConversionClient(
+        SupportedCurrencyRegistry supportedCurrencyRegistry,
+        CurrencyConversionCacheSettings cacheSettings,
+        CrossRateSettings crossRateSettings,
+        FxRateSnapshotSettings snapshotSettings,
+        FxRateSnapshotRepository snapshotRepository,
+        ProviderQuotaSettings quotaSettings,
+        ProviderQuotaTracker quotaTracker,
+        MoneySettings moneySettings
+    ) {
+        CurrencyConversionClient client = supportedCurrencyRegistry;
+
+        if (cacheSettings.enabled()) {
+            LOGGER.info(
+                "Caching currency exchange rates: time to live {}, refresh after {}, maximum size {}",
+                cacheSettings.timeToLive(),
+                cacheSettings.refreshAfter(),
+                cacheSettings.maximumSize()
+            );
+
+            var cachingClient = new CachingCurrencyConversionClient(client, cacheSettings);
+
+            if (snapshotSettings.enabled()) {
+                preloadFromSnapshots(cachingClient, cacheSettings, snapshotRepository);
+            }
+
+            if (quotaSettings.enabled()) {
+                quotaTracker.addBudgetListener(budgetLow -> {
+                    if (budgetLow) {
+                        cachingClient.useExpiry(quotaSettings.lowBudgetTimeToLive(), quotaSettings.lowBudgetRefreshAfter());
+                    } else {
+                        cachingClient.useExpiry(cacheSettings.timeToLive(), cacheSettings.refreshAfter());
+                    }
+                });
+            }
+
+            client = cachingClient;
+        }
+
+        if (crossRateSettings.enabled()) {
+            LOGGER.info("Deriving currency exchange rates via pivot currency {}", crossRateSettings.pivotCurrency());
+
+            client = new CrossRateCurrencyConversionClient(client, crossRateSettings.pivotCurrency(), moneySettings);
+        }
+
+        return client;
+    }
+
+    private static void preloadFromSnapshots(
+        CachingCurrencyConversionClient cachingClient,
+        CurrencyConversionCacheSettings cacheSettings,
+        FxRateSnapshotRepository snapshotRepository
+    ) {
+        try {
+            var now = LocalDateTime.now(ZoneOffset.UTC);
+            var fetchedAfter = now.minus(cacheSettings.timeToLive());
+            var snapshots = snapshotRepository.findLatestPerPairFetchedAfter(fetchedAfter);
+
+            snapshots.forEach(snapshot ->
+                cachingClient.preload(
+                    CurrencyPair.of(snapshot.getFromCurrency(), snapshot.getToCurrency()),
+                    snapshot.getRate(),
+                    Duration.between(snapshot.getFetchedAt(), now)
+                )
+            );
+            LOGGER.info(
+                "Pre-warmed currency exchange rate cache with {} rates fetched after {}",
+                snapshots.size(),
+                fetchedAfter
+            );
+        } catch (DataAccessException e) {
+            LOGGER.warn("Failed to pre-warm currency exchange rate cache from snapshots", e);
+        }
+    }
+}
@@ -2,14 +2,31 @@ package com.oneofalternatives.accountapp.integration;
 
 import java.math.BigDecimal;
 import java.util.Currency;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 public class CurrencyConversionClientMock implements CurrencyConversionClient {
 
     private final CurrencyConverterMockSettings settings;
+    private final RateMatrix rates;
 
     public CurrencyConversionClientMock(CurrencyConverterMockSettings settings) {
         this.settings = settings;
+        this.rates =
+            RateMatrix.of(
+                settings.exchangeRates()
+                    .entrySet()
+                    .stream()
+                    .collect(Collectors.toMap(
+                        rate -> CurrencyPair.of(
+                            Currency.getInstance(rate.getKey().substring(0, 3)),
+                            Currency.getInstance(rate.getKey().substring(3))
+                        ),
+                        Map.Entry::getValue
+                    ))
+            );
     }
 
     @Override
@@ -19,6 +36,26 @@ public class CurrencyConversionClientMock implements CurrencyConversionClient {
 
     @Override
     public BigDecimal getDirectRate(Currency fromCurrency, Currency toCurrency) {
-        return settings.exchangeRates().get(fromCurrency.getCurrencyCode() + toCurrency.getCurrencyCode());
+        return rates.rate(fromCurrency, toCurrency);
+    }
+
+    @Override
+    public BigDecimal getReciprocalRate(Currency fromCurrency, Currency toCurrency) {
+        return rates.reciprocal(fromCurrency, toCurrency);
+    }
+
+    @Override
+    public Map<Currency, BigDecimal> getDirectRates(Currency fromCurrency, Set<Currency> toCurrencies) {
+        var directRates = new HashMap<Currency, BigDecimal>();
+
+        for (var toCurrency : toCurrencies) {
+            var rate = getDirectRate(fromCurrency, toCurrency);
+
+            if (rate != null) {
+                directRates.put(toCurrency, rate);
+            }
+        }
+
+        return Map.copyOf(directRates);
     }
 }
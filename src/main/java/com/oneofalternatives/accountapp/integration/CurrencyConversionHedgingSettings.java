@@ -0,0 +1,14 @@
+package com.oneofalternatives.accountapp.integration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "account-app.currency-converter.hedging")
+public record CurrencyConversionHedgingSettings(
+    boolean enabled,
+    double delayPercentile,
+    Duration minimumDelay,
+    Duration maximumDelay,
+    int maximumConcurrentAttempts
+) { }
@@ -7,27 +7,43 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+
 @Configuration
 @ConditionalOnProperty(value = "account-app.currency-converter.mock.enabled", havingValue = "false", matchIfMissing = true)
 public class CurrencyConversionIntegrationConfig {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CurrencyConversionIntegrationConfig.class);
 
+    private static final String CLIENT_PROPERTY = "account-app.currency-converter.service.exchangeratehost.client";
+    private static final String SECONDARY_PROPERTY =
+        "account-app.currency-converter.service.exchangeratehost.secondary.enabled";
+
+    private static final int PRIMARY_PROVIDER_ORDER = 1;
+    private static final int SECONDARY_PROVIDER_ORDER = 2;
+
     @Bean
-    public CurrencyConversionClient exchangeRateHostClient(
+    @CurrencyConversionProvider
+    @Order(PRIMARY_PROVIDER_ORDER)
+    @ConditionalOnProperty(value = CLIENT_PROPERTY, havingValue = "rest-template", matchIfMissing = true)
+    public HedgingCurrencyConversionClient.Provider exchangeRateHostClient(
         RestTemplate exchangeRateHostRestTemplate,
         ExchangeRateHostIntegrationSettings settings,
         ObjectMapper objectMapper
     ) {
-        LOGGER.info("Using real currency exchange client implementation");
+        LOGGER.info("Using real currency exchange client implementation for account {}", settings.accountName());
 
         return
-            new ExchangeRateHostClient(
-                exchangeRateHostRestTemplate,
-                settings,
-                objectMapper
+            new HedgingCurrencyConversionClient.Provider(
+                settings.accountName(),
+                new ExchangeRateHostClient(
+                    exchangeRateHostRestTemplate,
+                    settings,
+                    objectMapper
+                )
             );
     }
 
@@ -35,6 +51,46 @@ public class CurrencyConversionIntegrationConfig {
     public RestTemplate exchangeRateHostRestTemplate(
         RestTemplateBuilder builder,
         ExchangeRateHostIntegrationSettings settings
+    ) {
+        return restTemplate(builder, settings);
+    }
+
+    // shares the timeouts of the primary client
+    @Bean
+    @CurrencyConversionProvider
+    @Order(SECONDARY_PROVIDER_ORDER)
+    @ConditionalOnProperty(value = SECONDARY_PROPERTY, havingValue = "true")
+    public HedgingCurrencyConversionClient.Provider secondaryExchangeRateHostClient(
+        RestTemplateBuilder builder,
+        ExchangeRateHostIntegrationSettings primarySettings,
+        ExchangeRateHostSecondarySettings secondarySettings,
+        ObjectMapper objectMapper
+    ) {
+        LOGGER.info("Using secondary currency exchange client for account {}", secondarySettings.accountName());
+
+        var settings =
+            new ExchangeRateHostIntegrationSettings(
+                secondarySettings.rootUrl(),
+                secondarySettings.accessKey(),
+                primarySettings.connectionTimeout(),
+                primarySettings.readTimeout(),
+                secondarySettings.accountName()
+            );
+
+        return
+            new HedgingCurrencyConversionClient.Provider(
+                settings.accountName(),
+                new ExchangeRateHostClient(
+                    restTemplate(builder, settings),
+                    settings,
+                    objectMapper
+                )
+            );
+    }
+
+    private static RestTemplate restTemplate(
+        RestTemplateBuilder builder,
+        ExchangeRateHostIntegrationSettings settings
     ) {
         return
             builder
@@ -44,4 +100,44 @@ public class CurrencyConversionIntegrationConfig {
                 .setReadTimeout(settings.readTimeout())
                 .build();
     }
+
+    @Bean
+    @CurrencyConversionProvider
+    @Order(PRIMARY_PROVIDER_ORDER)
+    @ConditionalOnProperty(value = CLIENT_PROPERTY, havingValue = "http-client")
+    public HedgingCurrencyConversionClient.Provider exchangeRateHostAsyncClient(
+        HttpClient exchangeRateHostHttpClient,
+        ExchangeRateHostIntegrationSettings settings,
+        ExchangeRateHostHttpClientSettings httpClientSettings,
+        ObjectMapper objectMapper
+    ) {
+        LOGGER.info(
+            "Using real asynchronous currency exchange client for account {}, at most {} concurrent requests",
+            settings.accountName(),
+            httpClientSettings.maxConcurrentRequests()
+        );
+
+        return
+            new HedgingCurrencyConversionClient.Provider(
+                settings.accountName(),
+                new ExchangeRateHostAsyncClient(
+                    exchangeRateHostHttpClient,
+                    settings,
+                    httpClientSettings,
+                    objectMapper
+                )
+            );
+    }
+
+    @Bean
+    @ConditionalOnProperty(value = CLIENT_PROPERTY, havingValue = "http-client")
+    public HttpClient exchangeRateHostHttpClient(
+        ExchangeRateHostIntegrationSettings settings
+    ) {
+        return
+            HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(settings.connectionTimeout())
+                .build();
+    }
 }
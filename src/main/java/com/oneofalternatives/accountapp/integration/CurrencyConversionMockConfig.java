@@ -13,11 +13,16 @@ public class CurrencyConversionMockConfig {
     private static final Logger LOGGER = LoggerFactory.getLogger(CurrencyConversionMockConfig.class);
 
     @Bean
-    public CurrencyConversionClient currencyConversionClientMock(
+    @CurrencyConversionProvider
+    public HedgingCurrencyConversionClient.Provider currencyConversionClientMock(
         CurrencyConverterMockSettings currencyConverterMockSettings
     ) {
         LOGGER.info("Using mocked currency exchange client implementation");
 
-        return new CurrencyConversionClientMock(currencyConverterMockSettings);
+        return
+            new HedgingCurrencyConversionClient.Provider(
+                "mock",
+                new CurrencyConversionClientMock(currencyConverterMockSettings)
+            );
     }
 }
@@ -0,0 +1,17 @@
+package com.oneofalternatives.accountapp.integration;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a provider bean talking to a rate provider directly, as opposed to the decorated client exposed to the rest of
+ * the application by {@link CurrencyConversionClientConfig}.
+ */
+@Target({ElementType.METHOD, ElementType.PARAMETER, ElementType.FIELD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Qualifier
+public @interface CurrencyConversionProvider { }
@@ -0,0 +1,13 @@
+package com.oneofalternatives.accountapp.integration;
+
+import java.util.Currency;
+
+public record CurrencyPair(
+    Currency fromCurrency,
+    Currency toCurrency
+) {
+
+    public static CurrencyPair of(Currency fromCurrency, Currency toCurrency) {
+        return new CurrencyPair(fromCurrency, toCurrency);
+    }
+}
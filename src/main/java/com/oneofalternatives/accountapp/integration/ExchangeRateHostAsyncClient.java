@@ -0,0 +1,140 @@
+package com.oneofalternatives.accountapp.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oneofalternatives.accountapp.error.CurrencyExchangeServiceError;
+import org.springframework.http.HttpStatusCode;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.util.Currency;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.BiFunction;
+
+/**
+ * A request over {@code maxConcurrentRequests} in flight fails at once rather than blocking the caller.
+ */
+public class ExchangeRateHostAsyncClient implements CurrencyConversionClient {
+
+    private final HttpClient httpClient;
+    private final ExchangeRateHostIntegrationSettings settings;
+    private final ExchangeRateHostResponseReader responseReader;
+    private final Semaphore requestPermits;
+
+    public ExchangeRateHostAsyncClient(
+        HttpClient httpClient,
+        ExchangeRateHostIntegrationSettings settings,
+        ExchangeRateHostHttpClientSettings httpClientSettings,
+        ObjectMapper objectMapper
+    ) {
+        this.httpClient = httpClient;
+        this.settings = settings;
+        this.responseReader = new ExchangeRateHostResponseReader(objectMapper);
+        this.requestPermits = new Semaphore(httpClientSettings.maxConcurrentRequests());
+    }
+
+    @Override
+    public Set<Currency> getSupportedCurrencies() {
+        return await(getSupportedCurrenciesAsync());
+    }
+
+    @Override
+    public BigDecimal getDirectRate(Currency fromCurrency, Currency toCurrency) {
+        return await(getDirectRateAsync(fromCurrency, toCurrency));
+    }
+
+    @Override
+    public Map<Currency, BigDecimal> getDirectRates(Currency fromCurrency, Set<Currency> toCurrencies) {
+        return await(getDirectRatesAsync(fromCurrency, toCurrencies));
+    }
+
+    public CompletableFuture<Set<Currency>> getSupportedCurrenciesAsync() {
+        return
+            send(
+                ExchangeRateHostClient.supportedCurrenciesUri(settings.rootUrl()),
+                responseReader::readSupportedCurrencies
+            );
+    }
+
+    public CompletableFuture<BigDecimal> getDirectRateAsync(Currency fromCurrency, Currency toCurrency) {
+        return
+            send(
+                ExchangeRateHostClient.liveQuotesUri(settings.rootUrl(), fromCurrency, Set.of(toCurrency)),
+                responseReader::readDirectRate
+            );
+    }
+
+    public CompletableFuture<Map<Currency, BigDecimal>> getDirectRatesAsync(Currency fromCurrency, Set<Currency> toCurrencies) {
+        return
+            send(
+                ExchangeRateHostClient.liveQuotesUri(settings.rootUrl(), fromCurrency, toCurrencies),
+                (statusCode, body) -> responseReader.readDirectRates(fromCurrency, statusCode, body)
+            );
+    }
+
+    private <T> CompletableFuture<T> send(URI uri, BiFunction<HttpStatusCode, InputStream, T> bodyReader) {
+        if (!requestPermits.tryAcquire()) {
+            return CompletableFuture.failedFuture(
+                new CurrencyExchangeServiceError("Too many concurrent requests to currency exchange service")
+            );
+        }
+
+        var sent = false;
+
+        try {
+            var request =
+                HttpRequest.newBuilder(ExchangeRateHostAuthInterceptor.withAccessKey(uri, settings.accessKey()))
+                    .timeout(settings.readTimeout())
+                    .header("Accept", "application/json")
+                    .GET()
+                    .build();
+
+            var response =
+                httpClient
+                    .sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                    .whenComplete((ignored, error) -> requestPermits.release());
+
+            sent = true;
+
+            return
+                response.thenApply(it ->
+                    bodyReader.apply(HttpStatusCode.valueOf(it.statusCode()), new ByteArrayInputStream(it.body()))
+                );
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        } finally {
+            if (!sent) {
+                requestPermits.release();
+            }
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> response) {
+        try {
+            return response.join();
+        } catch (CompletionException e) {
+            throw translate(e.getCause());
+        }
+    }
+
+    private static RuntimeException translate(Throwable error) {
+        if (error instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+
+        if (error instanceof HttpTimeoutException) {
+            return new CurrencyExchangeServiceError("Currency exchange service did not respond in time");
+        }
+
+        return new CurrencyExchangeServiceError("Currency exchange service request failed: " + error.getMessage());
+    }
+}
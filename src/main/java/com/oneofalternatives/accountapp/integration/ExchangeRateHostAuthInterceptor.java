@@ -26,12 +26,7 @@ public class ExchangeRateHostAuthInterceptor implements ClientHttpRequestInterce
         @Nonnull byte[] body,
         ClientHttpRequestExecution execution
     ) throws IOException {
-        var uriWithAccessKey =
-            UriComponentsBuilder
-                .fromUri(request.getURI())
-                .replaceQueryParam(ACCESS_KEY, accessKey)
-                .build()
-                .toUri();
+        var uriWithAccessKey = withAccessKey(request.getURI(), accessKey);
 
         return
             execution
@@ -46,4 +41,13 @@ public class ExchangeRateHostAuthInterceptor implements ClientHttpRequestInterce
                     body
                 );
     }
+
+    static URI withAccessKey(URI uri, String accessKey) {
+        return
+            UriComponentsBuilder
+                .fromUri(uri)
+                .replaceQueryParam(ACCESS_KEY, accessKey)
+                .build()
+                .toUri();
+    }
 }
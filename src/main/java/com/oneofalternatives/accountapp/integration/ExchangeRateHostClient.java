@@ -1,18 +1,14 @@
 package com.oneofalternatives.accountapp.integration;
 
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.oneofalternatives.accountapp.error.CurrencyExchangeResultInterpretationError;
-import com.oneofalternatives.accountapp.error.CurrencyExchangeServiceError;
 import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import org.springframework.web.util.UriBuilderFactory;
 
 import java.math.BigDecimal;
+import java.net.URI;
 import java.util.Currency;
 import java.util.Map;
 import java.util.Set;
@@ -24,7 +20,7 @@ public class ExchangeRateHostClient implements CurrencyConversionClient {
 
     private final RestTemplate restTemplate;
     private final ExchangeRateHostIntegrationSettings settings;
-    private final ObjectMapper objectMapper;
+    private final ExchangeRateHostResponseReader responseReader;
 
     public ExchangeRateHostClient(
         RestTemplate exchangeRateHostRestTemplate,
@@ -33,133 +29,61 @@ public class ExchangeRateHostClient implements CurrencyConversionClient {
     ) {
         this.restTemplate = exchangeRateHostRestTemplate;
         this.settings = settings;
-        this.objectMapper = objectMapper;
+        this.responseReader = new ExchangeRateHostResponseReader(objectMapper);
     }
 
     @Override
     public Set<Currency> getSupportedCurrencies() {
-        var response =
-            restTemplate
-                .exchange(
-                    URI_BUILDER_FACTORY
-                        .uriString(settings.rootUrl())
-                        .path("/list")
-                        .build(),
-                    HttpMethod.GET,
-                    null,
-                    ObjectNode.class
-                );
-
-        var supportedCurrencies =
-            handleError(
-                response,
-                "Currency exchange service failed to return list of supported currencies",
-                SupportedCurrencyListProjection.class
-            )
-                .currencies();
-
-        if (supportedCurrencies.isEmpty()) {
-            throw new CurrencyExchangeResultInterpretationError("Currency exchange service did not return any supported currencies");
-        }
-
         return
-            supportedCurrencies.keySet()
-                .stream()
-                .filter(currencyCode ->
-                    Currency.getAvailableCurrencies()
-                        .stream()
-                        .map(Currency::getCurrencyCode)
-                        .anyMatch(currencyCode::equals)
-                )
-                .map(Currency::getInstance)
-                .collect(Collectors.toSet());
+            get(
+                supportedCurrenciesUri(settings.rootUrl()),
+                response -> responseReader.readSupportedCurrencies(response.getStatusCode(), response.getBody())
+            );
     }
 
     @Override
     public BigDecimal getDirectRate(Currency fromCurrency, Currency toCurrency) {
-        var response =
-            restTemplate
-                .exchange(
-                    URI_BUILDER_FACTORY
-                        .uriString(settings.rootUrl())
-                        .path("/live")
-                        .queryParam("source", fromCurrency)
-                        .queryParam("currencies", toCurrency)
-                        .build(),
-                    HttpMethod.GET,
-                    null,
-                    ObjectNode.class
-                );
-
-        var quotes =
-            handleError(
-                response,
-                "Currency exchange service failed to return quotes",
-                QuotesProjection.class
-            )
-                .quotes();
-
-        if (quotes.size() > 1) {
-            throw new CurrencyExchangeResultInterpretationError("Currency exchange service returned more than one quote");
-        }
-
         return
-            quotes.values().stream().findAny()
-                .orElseThrow(() -> new CurrencyExchangeServiceError("Currency exchange service did not return any quotes"));
-    }
-
-    private <T> T handleError(
-        ResponseEntity<ObjectNode> response,
-        String messageForErrorCode,
-        Class<T> successBodyType
-    ) {
-        if (!response.getStatusCode().is2xxSuccessful()) {
-            throw new CurrencyExchangeServiceError("Currency exchange service responded with status " + response.getStatusCode());
-        }
-
-        var bodyJson = response.getBody();
-
-        if (bodyJson == null) {
-            throw new CurrencyExchangeServiceError("Currency exchange service response body is missing");
-        }
-
-        if (isFailure(bodyJson)) {
-            var error = fromJson(bodyJson, ErrorProjection.class).error();
-
-            throw new CurrencyExchangeServiceError(
-                String.format(
-                    "%s. Reason code: %s. Reason description: %s",
-                    messageForErrorCode,
-                    error.code(),
-                    error.info()
-                )
+            get(
+                liveQuotesUri(settings.rootUrl(), fromCurrency, Set.of(toCurrency)),
+                response -> responseReader.readDirectRate(response.getStatusCode(), response.getBody())
             );
-        }
-
-        return fromJson(bodyJson, successBodyType);
     }
 
-    private static boolean isFailure(ObjectNode bodyJson) {
-        //noinspection PointlessBooleanExpression
-        return bodyJson.get("success").asBoolean() == false;
+    @Override
+    public Map<Currency, BigDecimal> getDirectRates(Currency fromCurrency, Set<Currency> toCurrencies) {
+        return
+            get(
+                liveQuotesUri(settings.rootUrl(), fromCurrency, toCurrencies),
+                response -> responseReader.readDirectRates(fromCurrency, response.getStatusCode(), response.getBody())
+            );
     }
 
-    private <T> T fromJson(ObjectNode jsonObject, Class<T> type) {
-        try {
-            return objectMapper.treeToValue(jsonObject, type);
-        } catch (JsonProcessingException e) {
-            throw new CurrencyExchangeResultInterpretationError(e);
-        }
+    static URI supportedCurrenciesUri(String rootUrl) {
+        return
+            URI_BUILDER_FACTORY
+                .uriString(rootUrl)
+                .path("/list")
+                .build();
     }
 
-    @JsonIgnoreProperties(ignoreUnknown = true)
-    private record SupportedCurrencyListProjection(Boolean success, Map<String, String> currencies) { }
-
-    @JsonIgnoreProperties(ignoreUnknown = true)
-    private record QuotesProjection(Map<String, BigDecimal> quotes) { }
+    static URI liveQuotesUri(String rootUrl, Currency fromCurrency, Set<Currency> toCurrencies) {
+        var currencies =
+            toCurrencies.stream()
+                .map(Currency::getCurrencyCode)
+                .sorted()
+                .collect(Collectors.joining(","));
 
-    private record ErrorProjection(ErrorDetails error) {
+        return
+            URI_BUILDER_FACTORY
+                .uriString(rootUrl)
+                .path("/live")
+                .queryParam("source", fromCurrency)
+                .queryParam("currencies", currencies)
+                .build();
+    }
 
-        private record ErrorDetails(Integer code, String info) { }
+    private <T> T get(URI uri, ResponseExtractor<T> responseExtractor) {
+        return restTemplate.execute(uri, HttpMethod.GET, null, responseExtractor);
     }
 }
@@ -0,0 +1,8 @@
+package com.oneofalternatives.accountapp.integration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "account-app.currency-converter.service.exchangeratehost.http-client")
+public record ExchangeRateHostHttpClientSettings(
+    int maxConcurrentRequests
+) { }
@@ -9,5 +9,6 @@ public record ExchangeRateHostIntegrationSettings(
     String rootUrl,
     String accessKey,
     Duration connectionTimeout,
-    Duration readTimeout
+    Duration readTimeout,
+    String accountName
 ) { }
@@ -0,0 +1,231 @@
+package com.oneofalternatives.accountapp.integration;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oneofalternatives.accountapp.error.CurrencyExchangeResultInterpretationError;
+import com.oneofalternatives.accountapp.error.CurrencyExchangeServiceError;
+import org.springframework.http.HttpStatusCode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+class ExchangeRateHostResponseReader {
+
+    private static final Map<String, Currency> AVAILABLE_CURRENCIES =
+        Currency.getAvailableCurrencies()
+            .stream()
+            .collect(Collectors.toUnmodifiableMap(Currency::getCurrencyCode, Function.identity()));
+
+    private final JsonFactory jsonFactory;
+
+    ExchangeRateHostResponseReader(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    Set<Currency> readSupportedCurrencies(HttpStatusCode statusCode, InputStream body) {
+        var supportedCurrencies =
+            handleError(
+                statusCode,
+                body,
+                "Currency exchange service failed to return list of supported currencies"
+            )
+                .currencies;
+
+        if (supportedCurrencies.isEmpty()) {
+            throw new CurrencyExchangeResultInterpretationError("Currency exchange service did not return any supported currencies");
+        }
+
+        return Set.copyOf(supportedCurrencies);
+    }
+
+    BigDecimal readDirectRate(HttpStatusCode statusCode, InputStream body) {
+        var quotes = readQuotes(statusCode, body);
+
+        if (quotes.size() > 1) {
+            throw new CurrencyExchangeResultInterpretationError("Currency exchange service returned more than one quote");
+        }
+
+        return
+            quotes.values().stream().findAny()
+                .orElseThrow(() -> new CurrencyExchangeServiceError("Currency exchange service did not return any quotes"));
+    }
+
+    Map<Currency, BigDecimal> readDirectRates(Currency fromCurrency, HttpStatusCode statusCode, InputStream body) {
+        var quotes = readQuotes(statusCode, body);
+
+        if (quotes.isEmpty()) {
+            throw new CurrencyExchangeServiceError("Currency exchange service did not return any quotes");
+        }
+
+        var rates = new HashMap<Currency, BigDecimal>();
+
+        quotes.forEach((currencyPair, rate) -> {
+            var quotedCurrency = quotedCurrencyOf(fromCurrency, currencyPair);
+
+            if (quotedCurrency != null) {
+                rates.put(quotedCurrency, rate);
+            }
+        });
+
+        return Map.copyOf(rates);
+    }
+
+    private Map<String, BigDecimal> readQuotes(HttpStatusCode statusCode, InputStream body) {
+        return
+            handleError(
+                statusCode,
+                body,
+                "Currency exchange service failed to return quotes"
+            )
+                .quotes;
+    }
+
+    private static Currency quotedCurrencyOf(Currency sourceCurrency, String currencyPair) {
+        var sourceCode = sourceCurrency.getCurrencyCode();
+
+        return
+            currencyPair.startsWith(sourceCode)
+                ? AVAILABLE_CURRENCIES.get(currencyPair.substring(sourceCode.length()))
+                : null;
+    }
+
+    private Envelope handleError(
+        HttpStatusCode statusCode,
+        InputStream body,
+        String messageForErrorCode
+    ) {
+        if (!statusCode.is2xxSuccessful()) {
+            throw new CurrencyExchangeServiceError("Currency exchange service responded with status " + statusCode);
+        }
+
+        var envelope = parse(body);
+
+        if (envelope == null) {
+            throw new CurrencyExchangeServiceError("Currency exchange service response body is missing");
+        }
+
+        if (envelope.isFailure()) {
+            throw new CurrencyExchangeServiceError(
+                String.format(
+                    "%s. Reason code: %s. Reason description: %s",
+                    messageForErrorCode,
+                    envelope.errorCode,
+                    envelope.errorInfo
+                )
+            );
+        }
+
+        return envelope;
+    }
+
+    private Envelope parse(InputStream body) {
+        if (body == null) {
+            return null;
+        }
+
+        try (var parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() == null) {
+                return null;
+            }
+
+            expect(parser, JsonToken.START_OBJECT);
+
+            var envelope = new Envelope();
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                var fieldName = parser.getCurrentName();
+                parser.nextToken();
+
+                switch (fieldName) {
+                    case "success" -> envelope.success = parser.getValueAsBoolean();
+                    case "error" -> readError(parser, envelope);
+                    case "quotes" -> readQuotes(parser, envelope.quotes);
+                    case "currencies" -> readCurrencies(parser, envelope.currencies);
+                    default -> parser.skipChildren();
+                }
+            }
+
+            return envelope;
+        } catch (IOException e) {
+            throw new CurrencyExchangeResultInterpretationError(e);
+        }
+    }
+
+    private static void readError(JsonParser parser, Envelope envelope) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            var fieldName = parser.getCurrentName();
+            parser.nextToken();
+
+            switch (fieldName) {
+                case "code" -> envelope.errorCode = parser.getValueAsInt();
+                case "info" -> envelope.errorInfo = parser.getValueAsString();
+                default -> parser.skipChildren();
+            }
+        }
+    }
+
+    private static void readQuotes(JsonParser parser, Map<String, BigDecimal> quotes) throws IOException {
+        expect(parser, JsonToken.START_OBJECT);
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            var currencyPair = parser.getCurrentName();
+            parser.nextToken();
+            quotes.put(currencyPair, parser.getDecimalValue());
+        }
+    }
+
+    private static void readCurrencies(JsonParser parser, Set<Currency> currencies) throws IOException {
+        expect(parser, JsonToken.START_OBJECT);
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            var currency = AVAILABLE_CURRENCIES.get(parser.getCurrentName());
+            parser.nextToken();
+            parser.skipChildren();
+
+            if (currency != null) {
+                currencies.add(currency);
+            }
+        }
+    }
+
+    private static void expect(JsonParser parser, JsonToken expectedToken) throws IOException {
+        if (parser.currentToken() != expectedToken) {
+            throw new CurrencyExchangeResultInterpretationError(
+                String.format(
+                    "Unexpected %s at %s in currency exchange service response, expected %s",
+                    parser.currentToken(),
+                    parser.currentLocation(),
+                    expectedToken
+                )
+            );
+        }
+    }
+
+    private static class Envelope {
+
+        private Boolean success;
+        private Integer errorCode;
+        private String errorInfo;
+        private final Map<String, BigDecimal> quotes = new HashMap<>();
+        private final Set<Currency> currencies = new HashSet<>();
+
+        boolean isFailure() {
+            return !Boolean.TRUE.equals(success);
+        }
+    }
+}
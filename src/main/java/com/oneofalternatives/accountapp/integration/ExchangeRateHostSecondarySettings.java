@@ -0,0 +1,11 @@
+package com.oneofalternatives.accountapp.integration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "account-app.currency-converter.service.exchangeratehost.secondary")
+public record ExchangeRateHostSecondarySettings(
+    boolean enabled,
+    String rootUrl,
+    String accessKey,
+    String accountName
+) { }
@@ -0,0 +1,13 @@
+package com.oneofalternatives.accountapp.integration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "account-app.currency-converter.snapshot")
+public record FxRateSnapshotSettings(
+    boolean enabled,
+    Duration flushInterval,
+    int batchSize,
+    int queueCapacity
+) { }
@@ -0,0 +1,119 @@
+package com.oneofalternatives.accountapp.integration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Rates arriving while the queue is full are dropped.
+ */
+public class FxRateSnapshotWriter implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FxRateSnapshotWriter.class);
+
+    private static final String INSERT_SNAPSHOT =
+        "INSERT INTO fx_rate_snapshot (from_currency, to_currency, rate, fetched_at, provider) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FxRateSnapshotSettings settings;
+    private final Clock clock;
+    private final BlockingQueue<Snapshot> pendingSnapshots;
+    private final Counter storedSnapshots;
+    private final Counter droppedSnapshots;
+
+    public FxRateSnapshotWriter(
+        JdbcTemplate jdbcTemplate,
+        FxRateSnapshotSettings settings,
+        MeterRegistry meterRegistry
+    ) {
+        this(jdbcTemplate, settings, meterRegistry, Clock.systemUTC());
+    }
+
+    FxRateSnapshotWriter(
+        JdbcTemplate jdbcTemplate,
+        FxRateSnapshotSettings settings,
+        MeterRegistry meterRegistry,
+        Clock clock
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.settings = settings;
+        this.clock = clock;
+        this.pendingSnapshots = new ArrayBlockingQueue<>(settings.queueCapacity());
+        this.storedSnapshots =
+            Counter.builder("currency.converter.snapshots.stored")
+                .description("Fetched rates stored in the snapshot table")
+                .register(meterRegistry);
+        this.droppedSnapshots =
+            Counter.builder("currency.converter.snapshots.dropped")
+                .description("Fetched rates not stored because the snapshot queue was full or the insert failed")
+                .register(meterRegistry);
+    }
+
+    public void record(String provider, Currency fromCurrency, Map<Currency, BigDecimal> rates) {
+        var fetchedAt = LocalDateTime.now(clock);
+
+        rates.forEach((toCurrency, rate) -> {
+            if (rate == null) {
+                return;
+            }
+
+            if (!pendingSnapshots.offer(new Snapshot(fromCurrency, toCurrency, rate, fetchedAt, provider))) {
+                droppedSnapshots.increment();
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${account-app.currency-converter.snapshot.flush-interval}")
+    public void flush() {
+        var batch = new ArrayList<Snapshot>(settings.batchSize());
+
+        while (pendingSnapshots.drainTo(batch, settings.batchSize()) > 0) {
+            try {
+                jdbcTemplate.batchUpdate(
+                    INSERT_SNAPSHOT,
+                    batch,
+                    batch.size(),
+                    (statement, snapshot) -> {
+                        statement.setString(1, snapshot.fromCurrency().getCurrencyCode());
+                        statement.setString(2, snapshot.toCurrency().getCurrencyCode());
+                        statement.setBigDecimal(3, snapshot.rate());
+                        statement.setObject(4, snapshot.fetchedAt());
+                        statement.setString(5, snapshot.provider());
+                    }
+                );
+                storedSnapshots.increment(batch.size());
+            } catch (DataAccessException e) {
+                LOGGER.warn("Failed to store {} currency exchange rate snapshots", batch.size(), e);
+                droppedSnapshots.increment(batch.size());
+            }
+
+            batch.clear();
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+
+    private record Snapshot(
+        Currency fromCurrency,
+        Currency toCurrency,
+        BigDecimal rate,
+        LocalDateTime fetchedAt,
+        String provider
+    ) { }
+}
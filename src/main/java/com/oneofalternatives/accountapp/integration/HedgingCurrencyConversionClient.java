@@ -0,0 +1,194 @@
+package com.oneofalternatives.accountapp.integration;
+
+import com.oneofalternatives.accountapp.error.CurrencyExchangeServiceError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+/**
+ * The next provider is called once every running attempt has failed or, when hedging is enabled, has been slower than
+ * the configured percentile of the primary provider's latency. An attempt the executor rejects counts as failed.
+ */
+public class HedgingCurrencyConversionClient implements CurrencyConversionClient {
+
+    private final List<Provider> providers;
+    private final CurrencyConversionHedgingSettings settings;
+    private final ExecutorService executor;
+    private final MeterRegistry meterRegistry;
+    private final Counter hedgedRequests;
+    private final Counter failedOverRequests;
+
+    public HedgingCurrencyConversionClient(
+        List<Provider> providers,
+        CurrencyConversionHedgingSettings settings,
+        ExecutorService executor,
+        MeterRegistry meterRegistry
+    ) {
+        this.providers = List.copyOf(providers);
+        this.settings = settings;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.hedgedRequests =
+            Counter.builder("currency.converter.requests.hedged")
+                .description("Requests sent to the next provider because the previous ones were slow")
+                .register(meterRegistry);
+        this.failedOverRequests =
+            Counter.builder("currency.converter.requests.failed.over")
+                .description("Requests sent to the next provider because the previous ones failed")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Set<Currency> getSupportedCurrencies() {
+        return call(CurrencyConversionClient::getSupportedCurrencies);
+    }
+
+    @Override
+    public BigDecimal getDirectRate(Currency fromCurrency, Currency toCurrency) {
+        return call(client -> client.getDirectRate(fromCurrency, toCurrency));
+    }
+
+    @Override
+    public Map<Currency, BigDecimal> getDirectRates(Currency fromCurrency, Set<Currency> toCurrencies) {
+        return call(client -> client.getDirectRates(fromCurrency, toCurrencies));
+    }
+
+    private <T> T call(Function<CurrencyConversionClient, T> request) {
+        var race = new Race<>(request);
+        race.launchNext();
+
+        try {
+            while (true) {
+                try {
+                    return race.result.get(hedgeDelay().toNanos(), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    if (!settings.enabled() || !race.launchNext()) {
+                        return race.result.get();
+                    }
+                    hedgedRequests.increment();
+                }
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new CurrencyExchangeServiceError("Currency exchange service request failed: " + e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CurrencyExchangeServiceError("Interrupted while waiting for currency exchange service");
+        } finally {
+            race.cancelRemaining();
+        }
+    }
+
+    private Duration hedgeDelay() {
+        var primaryLatency = latencyTimer(providers.get(0), "success");
+
+        if (primaryLatency.count() == 0) {
+            return settings.minimumDelay();
+        }
+
+        var percentileLatency =
+            Duration.ofNanos((long) primaryLatency.takeSnapshot().percentileValues()[0].value(TimeUnit.NANOSECONDS));
+
+        return
+            percentileLatency.compareTo(settings.minimumDelay()) < 0
+                ? settings.minimumDelay()
+                : percentileLatency.compareTo(settings.maximumDelay()) > 0
+                    ? settings.maximumDelay()
+                    : percentileLatency;
+    }
+
+    private Timer latencyTimer(Provider provider, String outcome) {
+        return
+            Timer.builder("currency.converter.provider.latency")
+                .description("Latency of requests to a single currency exchange rate provider")
+                .tag("provider", provider.name())
+                .tag("outcome", outcome)
+                .publishPercentiles(settings.delayPercentile())
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private final class Race<T> {
+
+        private final Function<CurrencyConversionClient, T> request;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final List<Future<?>> attempts = new ArrayList<>();
+        private int launchedAttempts;
+        private int failedAttempts;
+
+        private Race(Function<CurrencyConversionClient, T> request) {
+            this.request = request;
+        }
+
+        synchronized boolean launchNext() {
+            if (result.isDone() || launchedAttempts >= providers.size()) {
+                return false;
+            }
+
+            var provider = providers.get(launchedAttempts++);
+
+            try {
+                attempts.add(executor.submit(() -> attempt(provider)));
+            } catch (RejectedExecutionException e) {
+                onFailure(new CurrencyExchangeServiceError("Too many concurrent requests to currency exchange service"));
+            }
+
+            return true;
+        }
+
+        synchronized void cancelRemaining() {
+            attempts.forEach(attempt -> attempt.cancel(true));
+        }
+
+        private void attempt(Provider provider) {
+            var sample = Timer.start(meterRegistry);
+
+            try {
+                var value = request.apply(provider.client());
+                sample.stop(latencyTimer(provider, "success"));
+                result.complete(value);
+            } catch (RuntimeException e) {
+                sample.stop(latencyTimer(provider, result.isDone() ? "cancelled" : "failure"));
+                onFailure(e);
+            } catch (Error e) {
+                sample.stop(latencyTimer(provider, "failure"));
+                result.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        private synchronized void onFailure(RuntimeException error) {
+            failedAttempts++;
+
+            if (failedAttempts < launchedAttempts) {
+                return;
+            }
+
+            if (launchNext()) {
+                failedOverRequests.increment();
+            } else {
+                result.completeExceptionally(error);
+            }
+        }
+    }
+
+    /**
+     * @param name identifies the provider account in quota usage, rate snapshots and metrics
+     */
+    public record Provider(String name, CurrencyConversionClient client) { }
+}
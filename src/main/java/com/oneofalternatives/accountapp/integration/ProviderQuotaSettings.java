@@ -0,0 +1,17 @@
+package com.oneofalternatives.accountapp.integration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Set;
+
+@ConfigurationProperties(prefix = "account-app.currency-converter.quota")
+public record ProviderQuotaSettings(
+    boolean enabled,
+    long monthlyLimit,
+    double lowBudgetShare,
+    Duration lowBudgetTimeToLive,
+    Duration lowBudgetRefreshAfter,
+    Duration flushInterval,
+    Set<String> providers
+) { }
@@ -0,0 +1,214 @@
+package com.oneofalternatives.accountapp.integration;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Counts calls per provider and calendar month (UTC). The budget is low when the remaining share drops below the
+ * threshold or the current call rate would exhaust the quota before the month ends.
+ */
+public class ProviderQuotaTracker implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProviderQuotaTracker.class);
+
+    private static final String SELECT_USAGE = "SELECT provider, calls FROM provider_quota_usage WHERE period = ?";
+    private static final String MERGE_USAGE =
+        "MERGE INTO provider_quota_usage (provider, period, calls) KEY (provider, period) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProviderQuotaSettings settings;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final Map<String, AtomicLong> callsByProvider = new ConcurrentHashMap<>();
+    private final List<Consumer<Boolean>> budgetListeners = new CopyOnWriteArrayList<>();
+
+    private volatile YearMonth period;
+    private volatile boolean budgetLow;
+
+    public ProviderQuotaTracker(
+        JdbcTemplate jdbcTemplate,
+        ProviderQuotaSettings settings,
+        MeterRegistry meterRegistry
+    ) {
+        this(jdbcTemplate, settings, meterRegistry, Clock.systemUTC());
+    }
+
+    ProviderQuotaTracker(
+        JdbcTemplate jdbcTemplate,
+        ProviderQuotaSettings settings,
+        MeterRegistry meterRegistry,
+        Clock clock
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.settings = settings;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.period = currentPeriod();
+
+        Gauge.builder("currency.converter.quota.low", this, tracker -> tracker.budgetLow ? 1 : 0)
+            .description("1 while the remaining provider quota is low and rates are refreshed less often")
+            .register(meterRegistry);
+
+        load();
+    }
+
+    public void recordCall(String provider) {
+        rollOverIfNeeded();
+        callsOf(provider).incrementAndGet();
+    }
+
+    public long remainingCalls(String provider) {
+        return Math.max(0, settings.monthlyLimit() - callsOf(provider).get());
+    }
+
+    /**
+     * @return {@code null} if no calls were made this month yet
+     */
+    public Duration projectedTimeUntilExhaustion(String provider) {
+        var calls = callsOf(provider).get();
+        var elapsed = Duration.between(period.atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC), clock.instant());
+
+        if (calls == 0 || elapsed.isZero()) {
+            return null;
+        }
+
+        return Duration.ofMillis(remainingCalls(provider) * elapsed.toMillis() / calls);
+    }
+
+    public boolean isBudgetLow() {
+        return budgetLow;
+    }
+
+    public void addBudgetListener(Consumer<Boolean> listener) {
+        budgetListeners.add(listener);
+    }
+
+    @Scheduled(fixedDelayString = "${account-app.currency-converter.quota.flush-interval}")
+    public void flush() {
+        rollOverIfNeeded();
+        persist(period);
+        evaluateBudget();
+    }
+
+    @Override
+    public void close() {
+        persist(period);
+    }
+
+    private AtomicLong callsOf(String provider) {
+        return callsByProvider.computeIfAbsent(provider, this::registerProvider);
+    }
+
+    private AtomicLong registerProvider(String provider) {
+        var calls = new AtomicLong();
+
+        Gauge.builder("currency.converter.quota.used", calls, AtomicLong::get)
+            .description("Calls made to the provider in the current month")
+            .tag("provider", provider)
+            .register(meterRegistry);
+        Gauge.builder("currency.converter.quota.remaining", this, tracker -> tracker.remainingCalls(provider))
+            .description("Calls left in the provider's monthly quota")
+            .tag("provider", provider)
+            .register(meterRegistry);
+        Gauge.builder("currency.converter.quota.exhaustion", this, tracker -> tracker.secondsUntilExhaustion(provider))
+            .description("Projected time until the provider's monthly quota runs out at the current call rate")
+            .tag("provider", provider)
+            .baseUnit("seconds")
+            .register(meterRegistry);
+
+        return calls;
+    }
+
+    private double secondsUntilExhaustion(String provider) {
+        var timeUntilExhaustion = projectedTimeUntilExhaustion(provider);
+
+        return
+            timeUntilExhaustion != null
+                ? timeUntilExhaustion.toSeconds()
+                : Double.POSITIVE_INFINITY;
+    }
+
+    private void evaluateBudget() {
+        var timeLeftInPeriod =
+            Duration.between(clock.instant(), period.plusMonths(1).atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC));
+
+        var low =
+            callsByProvider.keySet()
+                .stream()
+                .anyMatch(provider -> {
+                    var timeUntilExhaustion = projectedTimeUntilExhaustion(provider);
+
+                    return
+                        remainingCalls(provider) < settings.monthlyLimit() * settings.lowBudgetShare()
+                            || timeUntilExhaustion != null && timeUntilExhaustion.compareTo(timeLeftInPeriod) < 0;
+                });
+
+        if (low != budgetLow) {
+            budgetLow = low;
+
+            if (low) {
+                LOGGER.warn("Currency exchange provider quota is running low, refreshing rates less often");
+            } else {
+                LOGGER.info("Currency exchange provider quota is sufficient again");
+            }
+
+            budgetListeners.forEach(listener -> listener.accept(low));
+        }
+    }
+
+    private synchronized void rollOverIfNeeded() {
+        var currentPeriod = currentPeriod();
+
+        if (currentPeriod.equals(period)) {
+            return;
+        }
+
+        persist(period);
+        callsByProvider.values().forEach(calls -> calls.set(0));
+        period = currentPeriod;
+    }
+
+    private void load() {
+        try {
+            jdbcTemplate.query(
+                SELECT_USAGE,
+                resultSet -> {
+                    callsOf(resultSet.getString("provider")).set(resultSet.getLong("calls"));
+                },
+                period.toString()
+            );
+        } catch (DataAccessException e) {
+            LOGGER.warn("Failed to load provider quota usage, counting from zero", e);
+        }
+    }
+
+    private void persist(YearMonth persistedPeriod) {
+        try {
+            callsByProvider.forEach((provider, calls) ->
+                jdbcTemplate.update(MERGE_USAGE, provider, persistedPeriod.toString(), calls.get())
+            );
+        } catch (DataAccessException e) {
+            LOGGER.warn("Failed to store provider quota usage", e);
+        }
+    }
+
+    private YearMonth currentPeriod() {
+        return YearMonth.now(clock.withZone(ZoneOffset.UTC));
+    }
+}
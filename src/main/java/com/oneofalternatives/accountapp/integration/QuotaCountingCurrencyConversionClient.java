@@ -0,0 +1,41 @@
+package com.oneofalternatives.accountapp.integration;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.Map;
+import java.util.Set;
+
+public class QuotaCountingCurrencyConversionClient implements CurrencyConversionClient {
+
+    private final CurrencyConversionClient delegate;
+    private final String providerName;
+    private final ProviderQuotaTracker quotaTracker;
+
+    public QuotaCountingCurrencyConversionClient(
+        CurrencyConversionClient delegate,
+        String providerName,
+        ProviderQuotaTracker quotaTracker
+    ) {
+        this.delegate = delegate;
+        this.providerName = providerName;
+        this.quotaTracker = quotaTracker;
+    }
+
+    @Override
+    public Set<Currency> getSupportedCurrencies() {
+        quotaTracker.recordCall(providerName);
+        return delegate.getSupportedCurrencies();
+    }
+
+    @Override
+    public BigDecimal getDirectRate(Currency fromCurrency, Currency toCurrency) {
+        quotaTracker.recordCall(providerName);
+        return delegate.getDirectRate(fromCurrency, toCurrency);
+    }
+
+    @Override
+    public Map<Currency, BigDecimal> getDirectRates(Currency fromCurrency, Set<Currency> toCurrencies) {
+        quotaTracker.recordCall(providerName);
+        return delegate.getDirectRates(fromCurrency, toCurrencies);
+    }
+}
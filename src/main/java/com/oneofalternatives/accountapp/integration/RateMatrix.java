@@ -0,0 +1,86 @@
+package com.oneofalternatives.accountapp.integration;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable; a new matrix is swapped in as a whole when the rates change.
+ */
+public final class RateMatrix {
+
+    private final Map<Currency, Integer> ordinals;
+    private final int size;
+    private final BigDecimal[] rates;
+    private final BigDecimal[] reciprocals;
+
+    private RateMatrix(Map<Currency, Integer> ordinals, BigDecimal[] rates, BigDecimal[] reciprocals) {
+        this.ordinals = ordinals;
+        this.size = ordinals.size();
+        this.rates = rates;
+        this.reciprocals = reciprocals;
+    }
+
+    public static RateMatrix of(Map<CurrencyPair, BigDecimal> rates) {
+        var ordinals = new IdentityHashMap<Currency, Integer>();
+
+        for (var pair : rates.keySet()) {
+            ordinals.putIfAbsent(pair.fromCurrency(), ordinals.size());
+            ordinals.putIfAbsent(pair.toCurrency(), ordinals.size());
+        }
+
+        var size = ordinals.size();
+        var rateCells = new BigDecimal[size * size];
+        var reciprocalCells = new BigDecimal[size * size];
+
+        rates.forEach((pair, rate) -> {
+            var cell = ordinals.get(pair.fromCurrency()) * size + ordinals.get(pair.toCurrency());
+            rateCells[cell] = rate;
+            reciprocalCells[cell] = BigDecimal.ONE.divide(rate, MathContext.DECIMAL128);
+        });
+
+        return new RateMatrix(ordinals, rateCells, reciprocalCells);
+    }
+
+    public Set<Currency> currencies() {
+        return Collections.unmodifiableSet(ordinals.keySet());
+    }
+
+    /**
+     * @return units of {@code toCurrency} per unit of {@code fromCurrency}, or {@code null} if the pair is unknown
+     */
+    public BigDecimal rate(Currency fromCurrency, Currency toCurrency) {
+        var cell = cellOf(fromCurrency, toCurrency);
+
+        return
+            cell >= 0
+                ? rates[cell]
+                : null;
+    }
+
+    /**
+     * @return units of {@code fromCurrency} per unit of {@code toCurrency}, or {@code null} if the pair is unknown
+     */
+    public BigDecimal reciprocal(Currency fromCurrency, Currency toCurrency) {
+        var cell = cellOf(fromCurrency, toCurrency);
+
+        return
+            cell >= 0
+                ? reciprocals[cell]
+                : null;
+    }
+
+    private int cellOf(Currency fromCurrency, Currency toCurrency) {
+        var fromOrdinal = ordinals.get(fromCurrency);
+        var toOrdinal = ordinals.get(toCurrency);
+
+        return
+            fromOrdinal != null && toOrdinal != null
+                ? fromOrdinal * size + toOrdinal
+                : -1;
+    }
+}
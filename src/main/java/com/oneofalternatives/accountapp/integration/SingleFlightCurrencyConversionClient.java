@@ -0,0 +1,100 @@
+package com.oneofalternatives.accountapp.integration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+public class SingleFlightCurrencyConversionClient implements CurrencyConversionClient {
+
+    private static final Object SUPPORTED_CURRENCIES = new Object();
+
+    private final CurrencyConversionClient delegate;
+    private final ConcurrentMap<Object, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executedRequests;
+    private final Counter coalescedRequests;
+
+    public SingleFlightCurrencyConversionClient(
+        CurrencyConversionClient delegate,
+        MeterRegistry meterRegistry
+    ) {
+        this.delegate = delegate;
+        this.executedRequests =
+            Counter.builder("currency.converter.requests.executed")
+                .description("Provider requests performed on behalf of one or more callers")
+                .register(meterRegistry);
+        this.coalescedRequests =
+            Counter.builder("currency.converter.requests.coalesced")
+                .description("Calls that joined an identical provider request already in flight")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Set<Currency> getSupportedCurrencies() {
+        return singleFlight(SUPPORTED_CURRENCIES, delegate::getSupportedCurrencies);
+    }
+
+    @Override
+    public BigDecimal getDirectRate(Currency fromCurrency, Currency toCurrency) {
+        return
+            singleFlight(
+                CurrencyPair.of(fromCurrency, toCurrency),
+                () -> delegate.getDirectRate(fromCurrency, toCurrency)
+            );
+    }
+
+    @Override
+    public Map<Currency, BigDecimal> getDirectRates(Currency fromCurrency, Set<Currency> toCurrencies) {
+        return
+            singleFlight(
+                new BulkRequest(fromCurrency, Set.copyOf(toCurrencies)),
+                () -> delegate.getDirectRates(fromCurrency, toCurrencies)
+            );
+    }
+
+    private <T> T singleFlight(Object requestKey, Supplier<T> request) {
+        var flight = new CompletableFuture<T>();
+
+        @SuppressWarnings("unchecked")
+        var leaderFlight = (CompletableFuture<T>) inFlight.putIfAbsent(requestKey, flight);
+
+        if (leaderFlight != null) {
+            coalescedRequests.increment();
+            return await(leaderFlight);
+        }
+
+        executedRequests.increment();
+
+        try {
+            var result = request.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(requestKey, flight);
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record BulkRequest(Currency fromCurrency, Set<Currency> toCurrencies) { }
+}
@@ -0,0 +1,46 @@
+package com.oneofalternatives.accountapp.integration;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.Map;
+import java.util.Set;
+
+public class SnapshottingCurrencyConversionClient implements CurrencyConversionClient {
+
+    private final CurrencyConversionClient delegate;
+    private final String providerName;
+    private final FxRateSnapshotWriter snapshotWriter;
+
+    public SnapshottingCurrencyConversionClient(
+        CurrencyConversionClient delegate,
+        String providerName,
+        FxRateSnapshotWriter snapshotWriter
+    ) {
+        this.delegate = delegate;
+        this.providerName = providerName;
+        this.snapshotWriter = snapshotWriter;
+    }
+
+    @Override
+    public Set<Currency> getSupportedCurrencies() {
+        return delegate.getSupportedCurrencies();
+    }
+
+    @Override
+    public BigDecimal getDirectRate(Currency fromCurrency, Currency toCurrency) {
+        var rate = delegate.getDirectRate(fromCurrency, toCurrency);
+
+        if (rate != null) {
+            snapshotWriter.record(providerName, fromCurrency, Map.of(toCurrency, rate));
+        }
+
+        return rate;
+    }
+
+    @Override
+    public Map<Currency, BigDecimal> getDirectRates(Currency fromCurrency, Set<Currency> toCurrencies) {
+        var rates = delegate.getDirectRates(fromCurrency, toCurrencies);
+        snapshotWriter.record(providerName, fromCurrency, rates);
+        return rates;
+    }
+}
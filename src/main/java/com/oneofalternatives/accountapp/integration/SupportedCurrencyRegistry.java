@@ -0,0 +1,119 @@
+package com.oneofalternatives.accountapp.integration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Currency;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A failed refresh keeps serving the previously loaded set.
+ */
+public class SupportedCurrencyRegistry implements CurrencyConversionClient {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SupportedCurrencyRegistry.class);
+
+    private final CurrencyConversionClient delegate;
+    private final Clock clock;
+    private final Counter refreshFailures;
+
+    private volatile Snapshot snapshot;
+
+    public SupportedCurrencyRegistry(
+        CurrencyConversionClient delegate,
+        MeterRegistry meterRegistry
+    ) {
+        this(delegate, meterRegistry, Clock.systemUTC());
+    }
+
+    SupportedCurrencyRegistry(
+        CurrencyConversionClient delegate,
+        MeterRegistry meterRegistry,
+        Clock clock
+    ) {
+        this.delegate = delegate;
+        this.clock = clock;
+        this.refreshFailures =
+            Counter.builder("currency.converter.supported.currencies.refresh.failures")
+                .description("Failed attempts to reload supported currencies from the provider")
+                .register(meterRegistry);
+
+        Gauge.builder("currency.converter.supported.currencies.age", this, SupportedCurrencyRegistry::snapshotAgeInSeconds)
+            .description("Time since supported currencies were last loaded from the provider")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        Gauge.builder("currency.converter.supported.currencies.size", this, SupportedCurrencyRegistry::snapshotSize)
+            .description("Number of currencies supported by the provider")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${account-app.currency-converter.supported-currencies.refresh-interval}")
+    public void scheduledRefresh() {
+        try {
+            var currencies = refresh();
+            LOGGER.debug("Loaded {} supported currencies", currencies.size());
+        } catch (RuntimeException e) {
+            LOGGER.warn("Failed to refresh supported currencies, keeping the previously loaded ones", e);
+        }
+    }
+
+    public Set<Currency> refresh() {
+        try {
+            var currencies = Set.copyOf(delegate.getSupportedCurrencies());
+            snapshot = new Snapshot(currencies, clock.instant());
+            return currencies;
+        } catch (RuntimeException e) {
+            refreshFailures.increment();
+            throw e;
+        }
+    }
+
+    @Override
+    public Set<Currency> getSupportedCurrencies() {
+        var current = snapshot;
+
+        return
+            current != null
+                ? current.currencies()
+                : refresh();
+    }
+
+    @Override
+    public BigDecimal getDirectRate(Currency fromCurrency, Currency toCurrency) {
+        return delegate.getDirectRate(fromCurrency, toCurrency);
+    }
+
+    @Override
+    public Map<Currency, BigDecimal> getDirectRates(Currency fromCurrency, Set<Currency> toCurrencies) {
+        return delegate.getDirectRates(fromCurrency, toCurrencies);
+    }
+
+    private double snapshotAgeInSeconds() {
+        var current = snapshot;
+
+        return
+            current != null
+                ? Duration.between(current.loadedAt(), clock.instant()).toMillis() / 1000.0
+                : Double.NaN;
+    }
+
+    private double snapshotSize() {
+        var current = snapshot;
+
+        return
+            current != null
+                ? current.currencies().size()
+                : Double.NaN;
+    }
+
+    private record Snapshot(Set<Currency> currencies, Instant loadedAt) { }
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Version;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
@@ -30,4 +31,10 @@ public class Account {
     private BigDecimal balance;
 
     private Currency currency;
+
+    // kept by the balance updates, so history totals need no count
+    private Long transactionCount = 0L;
+
+    @Version
+    private Long version;
 }
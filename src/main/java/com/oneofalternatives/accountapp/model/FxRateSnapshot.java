@@ -0,0 +1,34 @@
+package com.oneofalternatives.accountapp.model;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Currency;
+
+@Setter
+@Getter
+@EqualsAndHashCode
+@ToString
+@Entity
+public class FxRateSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Currency fromCurrency;
+
+    private Currency toCurrency;
+
+    @Column(precision = 19, scale = 10)
+    private BigDecimal rate;
+
+    private LocalDateTime fetchedAt;
+
+    private String provider;
+}
@@ -2,10 +2,42 @@ package com.oneofalternatives.accountapp.repository;
 
 import com.oneofalternatives.accountapp.model.Account;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import java.math.BigDecimal;
+import java.util.Currency;
 import java.util.List;
+import java.util.Optional;
 
 public interface AccountRepository extends JpaRepository<Account, Integer> {
 
     List<Account> findAllByClientId(Integer clientId);
+
+    @Query("SELECT a.transactionCount FROM Account a WHERE a.id = :accountId")
+    Optional<Long> findTransactionCountById(Integer accountId);
+
+    /**
+     * @return {@code 0} if the account does not exist, is in another currency, has insufficient balance or was updated
+     * since the given version was read
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("""
+        UPDATE Account a SET a.balance = a.balance - :amount, a.version = a.version + 1,
+            a.transactionCount = a.transactionCount + 1
+        WHERE a.id = :accountId AND a.currency = :currency AND a.balance >= :amount AND a.version = :version
+        """)
+    int debit(Integer accountId, Currency currency, BigDecimal amount, Long version);
+
+    /**
+     * @return {@code 0} if the account does not exist, is in another currency or was updated since the given version
+     * was read
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("""
+        UPDATE Account a SET a.balance = a.balance + :amount, a.version = a.version + 1,
+            a.transactionCount = a.transactionCount + 1
+        WHERE a.id = :accountId AND a.currency = :currency AND a.version = :version
+        """)
+    int credit(Integer accountId, Currency currency, BigDecimal amount, Long version);
 }
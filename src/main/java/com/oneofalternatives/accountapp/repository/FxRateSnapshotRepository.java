@@ -0,0 +1,21 @@
+package com.oneofalternatives.accountapp.repository;
+
+import com.oneofalternatives.accountapp.model.FxRateSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface FxRateSnapshotRepository extends JpaRepository<FxRateSnapshot, Long> {
+
+    @Query("""
+        SELECT s FROM FxRateSnapshot s
+        WHERE s.fetchedAt >= :fetchedAfter
+        AND s.fetchedAt = (
+            SELECT MAX(l.fetchedAt) FROM FxRateSnapshot l
+            WHERE l.fromCurrency = s.fromCurrency AND l.toCurrency = s.toCurrency
+        )
+        """)
+    List<FxRateSnapshot> findLatestPerPairFetchedAfter(LocalDateTime fetchedAfter);
+}
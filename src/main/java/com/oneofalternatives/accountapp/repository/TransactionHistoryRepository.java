@@ -0,0 +1,120 @@
+package com.oneofalternatives.accountapp.repository;
+
+import com.oneofalternatives.accountapp.api.TransactionHistoryRecordProjection;
+import com.oneofalternatives.accountapp.api.TransactionHistoryRecordProjection.AccountBaseInfoProjection;
+import com.oneofalternatives.accountapp.api.TransactionHistoryRecordProjection.Direction;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Currency;
+import java.util.List;
+
+/**
+ * Sent and received transactions are read as two range scans merged with {@code UNION ALL}, as a single
+ * {@code sender OR receiver} condition cannot use either {@code (account, transaction_date, id)} index.
+ */
+@Repository
+public class TransactionHistoryRepository {
+
+    private static final String HISTORY_PAGE_QUERY = """
+        SELECT
+            t.id,
+            CASE WHEN t.sender_account_id = :accountId THEN 'OUTBOUND' ELSE 'INBOUND' END AS direction,
+            CASE WHEN t.sender_account_id = :accountId THEN r.id ELSE s.id END AS peer_account_id,
+            CASE WHEN t.sender_account_id = :accountId THEN r.number ELSE s.number END AS peer_account_number,
+            CASE WHEN t.sender_account_id = :accountId THEN t.source_amount ELSE t.target_amount END AS amount,
+            CASE WHEN t.sender_account_id = :accountId THEN s.currency ELSE r.currency END AS currency,
+            t.transaction_date
+        FROM (
+            SELECT * FROM (
+                SELECT * FROM (
+                    SELECT * FROM transaction tx
+                    WHERE tx.sender_account_id = :accountId
+                    %1$s
+                    ORDER BY tx.transaction_date DESC, tx.id DESC
+                    LIMIT :branchLimit
+                ) sent
+                UNION ALL
+                SELECT * FROM (
+                    SELECT * FROM transaction tx
+                    WHERE tx.receiver_account_id = :accountId AND tx.sender_account_id <> :accountId
+                    %1$s
+                    ORDER BY tx.transaction_date DESC, tx.id DESC
+                    LIMIT :branchLimit
+                ) received
+            ) merged
+            ORDER BY merged.transaction_date DESC, merged.id DESC
+            LIMIT :limit OFFSET :offset
+        ) t
+        JOIN account s ON s.id = t.sender_account_id
+        JOIN account r ON r.id = t.receiver_account_id
+        ORDER BY t.transaction_date DESC, t.id DESC
+        """;
+
+    private static final String OFFSET_PAGE_QUERY = HISTORY_PAGE_QUERY.formatted("");
+
+    private static final String SEEK_PAGE_QUERY =
+        HISTORY_PAGE_QUERY.formatted("AND (tx.transaction_date, tx.id) < (:transactionDate, :transactionId)");
+
+    static final RowMapper<TransactionHistoryRecordProjection> RECORD_MAPPER =
+        (resultSet, rowNumber) ->
+            new TransactionHistoryRecordProjection(
+                resultSet.getInt("id"),
+                new AccountBaseInfoProjection(
+                    resultSet.getInt("peer_account_id"),
+                    resultSet.getString("peer_account_number")
+                ),
+                Direction.valueOf(resultSet.getString("direction")),
+                resultSet.getBigDecimal("amount"),
+                Currency.getInstance(resultSet.getString("currency")),
+                resultSet.getObject("transaction_date", LocalDateTime.class)
+            );
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public TransactionHistoryRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // each branch reads offset + limit rows, so deep offsets still get slower than findPageBefore
+    public List<TransactionHistoryRecordProjection> findPage(int accountId, long offset, int limit) {
+        return
+            jdbcTemplate.query(
+                OFFSET_PAGE_QUERY,
+                pageParameters(accountId, offset, limit),
+                RECORD_MAPPER
+            );
+    }
+
+    public List<TransactionHistoryRecordProjection> findLatestPage(int accountId, int limit) {
+        return findPage(accountId, 0, limit);
+    }
+
+    public List<TransactionHistoryRecordProjection> findPageBefore(
+        int accountId,
+        LocalDateTime transactionDate,
+        int transactionId,
+        int limit
+    ) {
+        return
+            jdbcTemplate.query(
+                SEEK_PAGE_QUERY,
+                pageParameters(accountId, 0, limit)
+                    .addValue("transactionDate", transactionDate)
+                    .addValue("transactionId", transactionId),
+                RECORD_MAPPER
+            );
+    }
+
+    private static MapSqlParameterSource pageParameters(int accountId, long offset, int limit) {
+        return
+            new MapSqlParameterSource()
+                .addValue("accountId", accountId)
+                .addValue("offset", offset)
+                .addValue("limit", limit)
+                .addValue("branchLimit", offset + limit);
+    }
+}
@@ -0,0 +1,98 @@
+package com.oneofalternatives.accountapp.service;
+
+import com.oneofalternatives.accountapp.error.AccountLockTimeoutError;
+import com.oneofalternatives.accountapp.settings.AccountLockSettings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Stripes are always acquired in ascending order, so two transfers can never wait for each other. Locks only span this
+ * instance; balances stay guarded by the database.
+ */
+@Component
+public class AccountLockManager {
+
+    private final AccountLockSettings settings;
+    private final ReentrantLock[] locks;
+    private final Counter[] contendedCounters;
+    private final Counter timeoutCounter;
+    private final Timer waitTimer;
+
+    public AccountLockManager(
+        AccountLockSettings settings,
+        MeterRegistry meterRegistry
+    ) {
+        this.settings = settings;
+        this.locks = new ReentrantLock[settings.stripes()];
+        this.contendedCounters = new Counter[settings.stripes()];
+
+        for (var stripe = 0; stripe < settings.stripes(); stripe++) {
+            locks[stripe] = new ReentrantLock();
+            contendedCounters[stripe] =
+                Counter.builder("account.lock.contended")
+                    .tag("stripe", String.valueOf(stripe))
+                    .register(meterRegistry);
+        }
+
+        this.timeoutCounter = meterRegistry.counter("account.lock.timeouts");
+        this.waitTimer = meterRegistry.timer("account.lock.wait");
+    }
+
+    public <T> T withLocks(Collection<Integer> accountIds, Supplier<T> action) {
+        var stripes =
+            accountIds.stream()
+                .mapToInt(this::stripeOf)
+                .distinct()
+                .sorted()
+                .toArray();
+
+        var acquired = 0;
+
+        try {
+            for (var stripe : stripes) {
+                lock(stripe);
+                acquired++;
+            }
+
+            return action.get();
+        } finally {
+            for (var index = acquired - 1; index >= 0; index--) {
+                locks[stripes[index]].unlock();
+            }
+        }
+    }
+
+    int stripeOf(Integer accountId) {
+        return Math.floorMod(accountId, locks.length);
+    }
+
+    private void lock(int stripe) {
+        var lock = locks[stripe];
+
+        if (lock.tryLock()) {
+            return;
+        }
+
+        contendedCounters[stripe].increment();
+        var start = System.nanoTime();
+
+        try {
+            if (!lock.tryLock(settings.lockTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                timeoutCounter.increment();
+                throw new AccountLockTimeoutError("Account is busy with other transfers, try again later");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AccountLockTimeoutError("Interrupted while waiting for account to become available");
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package com.oneofalternatives.accountapp.service;
+
+import com.oneofalternatives.accountapp.error.FundTransferValidationError;
+import com.oneofalternatives.accountapp.model.Account;
+import com.oneofalternatives.accountapp.model.Transaction;
+import com.oneofalternatives.accountapp.repository.AccountRepository;
+import com.oneofalternatives.accountapp.repository.TransactionRepository;
+import jakarta.annotation.Nonnull;
+import jakarta.transaction.Transactional;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * Balance updates are guarded by the currency and the version read in the same transaction, so an account updated in
+ * between fails the transfer with an optimistic locking failure.
+ */
+@Component
+public class FundTransferLedger {
+
+    private static final String APPLY_BALANCE_DELTA_SQL = """
+        UPDATE account SET balance = balance + ?, version = version + 1, transaction_count = transaction_count + ?
+        WHERE id = ? AND currency = ? AND version = ? AND balance + ? >= 0
+        """;
+
+    private static final String INSERT_TRANSACTION_SQL = """
+        INSERT INTO transaction (sender_account_id, receiver_account_id, source_amount, target_amount, transaction_date)
+        VALUES (?, ?, ?, ?, ?)
+        """;
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public FundTransferLedger(
+        AccountRepository accountRepository,
+        TransactionRepository transactionRepository,
+        JdbcTemplate jdbcTemplate
+    ) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional
+    @Nonnull
+    public Transaction register(@Nonnull Transfer transfer) {
+        var readAccounts = findAccounts(transfer);
+        var sender = readAccounts.get(transfer.senderAccountId());
+        var receiver = readAccounts.get(transfer.receiverAccountId());
+
+        if (sender == null || receiver == null) {
+            throw accountRemoved();
+        }
+
+        var senderVersion = sender.getVersion();
+        var receiverVersion = receiver.getVersion();
+
+        var debited =
+            accountRepository.debit(
+                transfer.senderAccountId(),
+                transfer.sourceCurrency(),
+                transfer.sourceAmount(),
+                senderVersion
+            );
+
+        if (debited == 0) {
+            throw explainRejectedDebit(transfer, senderVersion);
+        }
+
+        var credited =
+            accountRepository.credit(
+                transfer.receiverAccountId(),
+                transfer.targetCurrency(),
+                transfer.targetAmount(),
+                receiverVersion
+            );
+
+        if (credited == 0) {
+            throw explainRejectedCredit(transfer, receiverVersion);
+        }
+
+        var accountsById = findAccounts(transfer);
+
+        var transaction = new Transaction();
+        transaction.setSenderAccount(accountsById.get(transfer.senderAccountId()));
+        transaction.setReceiverAccount(accountsById.get(transfer.receiverAccountId()));
+        transaction.setSourceAmount(transfer.sourceAmount());
+        transaction.setTargetAmount(transfer.targetAmount());
+        transaction.setTransactionDate(transfer.transactionDate());
+
+        return transactionRepository.save(transaction);
+    }
+
+    /**
+     * Replays the transfers in order over the balances read once, so each gets the outcome it would have on its own.
+     */
+    @Transactional
+    @Nonnull
+    public List<Outcome> registerAll(@Nonnull List<Transfer> transfers) {
+        var accountIds =
+            transfers.stream()
+                .flatMap(transfer -> Stream.of(transfer.senderAccountId(), transfer.receiverAccountId()))
+                .collect(toSet());
+
+        var balances =
+            accountRepository.findAllById(accountIds)
+                .stream()
+                .collect(toMap(Account::getId, RunningBalance::new));
+
+        var outcomes = new Outcome[transfers.size()];
+        var acceptedIndexes = new ArrayList<Integer>();
+        var balanceDeltas = new TreeMap<Integer, BigDecimal>();
+        var transactionCounts = new HashMap<Integer, Integer>();
+
+        for (var index = 0; index < transfers.size(); index++) {
+            var transfer = transfers.get(index);
+            var sender = balances.get(transfer.senderAccountId());
+            var receiver = balances.get(transfer.receiverAccountId());
+
+            var rejection = rejectionOf(transfer, sender, receiver);
+
+            if (rejection.isPresent()) {
+                outcomes[index] = Outcome.failed(rejection.get().getMessage());
+                continue;
+            }
+
+            sender.balance = sender.balance.subtract(transfer.sourceAmount());
+            receiver.balance = receiver.balance.add(transfer.targetAmount());
+            balanceDeltas.merge(transfer.senderAccountId(), transfer.sourceAmount().negate(), BigDecimal::add);
+            balanceDeltas.merge(transfer.receiverAccountId(), transfer.targetAmount(), BigDecimal::add);
+            transactionCounts.merge(transfer.senderAccountId(), 1, Integer::sum);
+            transactionCounts.merge(transfer.receiverAccountId(), 1, Integer::sum);
+            acceptedIndexes.add(index);
+        }
+
+        if (!acceptedIndexes.isEmpty()) {
+            applyBalanceDeltas(balanceDeltas, transactionCounts, balances);
+
+            var transactionIds = insertTransactions(acceptedIndexes.stream().map(transfers::get).toList());
+
+            for (var accepted = 0; accepted < acceptedIndexes.size(); accepted++) {
+                outcomes[acceptedIndexes.get(accepted)] = Outcome.succeeded(transactionIds.get(accepted));
+            }
+        }
+
+        return List.of(outcomes);
+    }
+
+    private Map<Integer, Account> findAccounts(Transfer transfer) {
+        return
+            accountRepository
+                .findAllById(Set.of(transfer.senderAccountId(), transfer.receiverAccountId()))
+                .stream()
+                .collect(toMap(Account::getId, Function.identity()));
+    }
+
+    private static Optional<FundTransferValidationError> rejectionOf(
+        Transfer transfer,
+        RunningBalance sender,
+        RunningBalance receiver
+    ) {
+        if (sender == null || receiver == null) {
+            return Optional.of(accountRemoved());
+        }
+
+        if (!sender.currency.equals(transfer.sourceCurrency()) || !receiver.currency.equals(transfer.targetCurrency())) {
+            return Optional.of(currencyChanged());
+        }
+
+        if (sender.balance.compareTo(transfer.sourceAmount()) < 0) {
+            return Optional.of(insufficientBalance());
+        }
+
+        // the balance delta statements reject any negative balance, the receiver's included
+        if (receiver.balance.add(transfer.targetAmount()).signum() < 0) {
+            return Optional.of(new FundTransferValidationError("Target account balance would become negative"));
+        }
+
+        return Optional.empty();
+    }
+
+    // in account ID order, each only to the version the replay started from
+    private void applyBalanceDeltas(
+        SortedMap<Integer, BigDecimal> balanceDeltas,
+        Map<Integer, Integer> transactionCounts,
+        Map<Integer, RunningBalance> balances
+    ) {
+        var arguments =
+            balanceDeltas.entrySet()
+                .stream()
+                .map(delta -> new Object[] {
+                    delta.getValue(),
+                    transactionCounts.get(delta.getKey()),
+                    delta.getKey(),
+                    balances.get(delta.getKey()).currency.getCurrencyCode(),
+                    balances.get(delta.getKey()).version,
+                    delta.getValue()
+                })
+                .toList();
+
+        var updatedRows = jdbcTemplate.batchUpdate(APPLY_BALANCE_DELTA_SQL, arguments);
+
+        if (Arrays.stream(updatedRows).anyMatch(count -> count == 0)) {
+            throw new OptimisticLockingFailureException("Account balance changed while the transfers were being registered");
+        }
+    }
+
+    private List<Integer> insertTransactions(List<Transfer> transfers) {
+        var keyHolder = new GeneratedKeyHolder();
+
+        jdbcTemplate.batchUpdate(
+            connection -> connection.prepareStatement(INSERT_TRANSACTION_SQL, new String[] {"id"}),
+            new BatchPreparedStatementSetter() {
+
+                @Override
+                public void setValues(PreparedStatement statement, int index) throws SQLException {
+                    var transfer = transfers.get(index);
+                    statement.setInt(1, transfer.senderAccountId());
+                    statement.setInt(2, transfer.receiverAccountId());
+                    statement.setBigDecimal(3, transfer.sourceAmount());
+                    statement.setBigDecimal(4, transfer.targetAmount());
+                    statement.setObject(5, transfer.transactionDate());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return transfers.size();
+                }
+            },
+            keyHolder
+        );
+
+        return
+            keyHolder.getKeyList()
+                .stream()
+                .map(keys -> ((Number) keys.values().iterator().next()).intValue())
+                .toList();
+    }
+
+    private RuntimeException explainRejectedDebit(Transfer transfer, Long readVersion) {
+        var senderAccount = accountRepository.findById(transfer.senderAccountId());
+
+        if (senderAccount.isEmpty()) {
+            return accountRemoved();
+        }
+
+        if (!Objects.equals(senderAccount.get().getVersion(), readVersion)) {
+            return concurrentUpdate(transfer.senderAccountId());
+        }
+
+        return
+            senderAccount.get().getCurrency().equals(transfer.sourceCurrency())
+                ? insufficientBalance()
+                : currencyChanged();
+    }
+
+    private RuntimeException explainRejectedCredit(Transfer transfer, Long readVersion) {
+        var receiverAccount = accountRepository.findById(transfer.receiverAccountId());
+
+        if (receiverAccount.isEmpty()) {
+            return accountRemoved();
+        }
+
+        if (!Objects.equals(receiverAccount.get().getVersion(), readVersion)) {
+            return concurrentUpdate(transfer.receiverAccountId());
+        }
+
+        return currencyChanged();
+    }
+
+    private static ObjectOptimisticLockingFailureException concurrentUpdate(Integer accountId) {
+        return new ObjectOptimisticLockingFailureException(Account.class, accountId);
+    }
+
+    private static FundTransferValidationError accountRemoved() {
+        return new FundTransferValidationError("Account was removed while the transfer was being prepared");
+    }
+
+    private static FundTransferValidationError currencyChanged() {
+        return new FundTransferValidationError("Account currency changed while the transfer was being prepared");
+    }
+
+    private static FundTransferValidationError insufficientBalance() {
+        return new FundTransferValidationError("Source account has insufficient balance");
+    }
+
+    private static final class RunningBalance {
+
+        private final Currency currency;
+        private final Long version;
+        private BigDecimal balance;
+
+        private RunningBalance(Account account) {
+            this.currency = account.getCurrency();
+            this.version = account.getVersion();
+            this.balance = account.getBalance();
+        }
+    }
+
+    public record Outcome(
+        Integer transactionId,
+        String error
+    ) {
+
+        static Outcome succeeded(Integer transactionId) {
+            return new Outcome(transactionId, null);
+        }
+
+        static Outcome failed(String error) {
+            return new Outcome(null, error);
+        }
+    }
+
+    public record Transfer(
+        Integer senderAccountId,
+        Integer receiverAccountId,
+        Currency sourceCurrency,
+        BigDecimal sourceAmount,
+        Currency targetCurrency,
+        BigDecimal targetAmount,
+        LocalDateTime transactionDate
+    ) { }
+}
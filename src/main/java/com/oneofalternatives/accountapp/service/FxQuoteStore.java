@@ -0,0 +1,78 @@
+package com.oneofalternatives.accountapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.oneofalternatives.accountapp.api.FxQuoteProjection;
+import com.oneofalternatives.accountapp.settings.FxQuoteSettings;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Currency;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * A quote can be taken only once, unless it is restored because its transfer failed.
+ */
+@Component
+public class FxQuoteStore {
+
+    private final FxQuoteSettings settings;
+    private final Cache<UUID, FxQuoteProjection> quotes;
+
+    public FxQuoteStore(FxQuoteSettings settings) {
+        this.settings = settings;
+        this.quotes =
+            Caffeine.newBuilder()
+                .expireAfterWrite(settings.timeToLive())
+                .maximumSize(settings.maximumSize())
+                .build();
+    }
+
+    public FxQuoteProjection issue(
+        Integer senderAccountId,
+        Integer receiverAccountId,
+        BigDecimal sourceAmount,
+        Currency sourceCurrency,
+        BigDecimal targetAmount,
+        Currency targetCurrency
+    ) {
+        var quote =
+            new FxQuoteProjection(
+                UUID.randomUUID(),
+                senderAccountId,
+                receiverAccountId,
+                sourceAmount,
+                sourceCurrency,
+                targetAmount,
+                targetCurrency,
+                LocalDateTime.now().plus(settings.timeToLive())
+            );
+
+        quotes.put(quote.quoteId(), quote);
+        return quote;
+    }
+
+    public Optional<FxQuoteProjection> find(UUID quoteId) {
+        return
+            Optional.ofNullable(quotes.getIfPresent(quoteId))
+                .filter(FxQuoteStore::isValid);
+    }
+
+    public Optional<FxQuoteProjection> take(UUID quoteId) {
+        return
+            Optional.ofNullable(quotes.asMap().remove(quoteId))
+                .filter(FxQuoteStore::isValid);
+    }
+
+    public void restore(FxQuoteProjection quote) {
+        if (isValid(quote)) {
+            quotes.asMap().putIfAbsent(quote.quoteId(), quote);
+        }
+    }
+
+    private static boolean isValid(FxQuoteProjection quote) {
+        return quote.expiresAt().isAfter(LocalDateTime.now());
+    }
+}
@@ -0,0 +1,164 @@
+package com.oneofalternatives.accountapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.oneofalternatives.accountapp.api.TransactionHistoryRecordProjection;
+import com.oneofalternatives.accountapp.settings.TransactionHistoryCacheSettings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiFunction;
+
+/**
+ * Heads expire {@code timeToLive} after they were loaded, not after their last update, as updates only come from
+ * transfers registered by this instance.
+ */
+@Component
+public class TransactionHistoryCache {
+
+    private static final Comparator<TransactionHistoryRecordProjection> LATEST_FIRST =
+        Comparator.comparing(TransactionHistoryRecordProjection::transactionDate)
+            .thenComparing(TransactionHistoryRecordProjection::transactionId)
+            .reversed();
+
+    private final TransactionHistoryCacheSettings settings;
+    private final Cache<Integer, Head> heads;
+    private final Counter hits;
+    private final Counter misses;
+
+    @Autowired
+    public TransactionHistoryCache(
+        TransactionHistoryCacheSettings settings,
+        MeterRegistry meterRegistry
+    ) {
+        this(settings, meterRegistry, Ticker.systemTicker());
+    }
+
+    TransactionHistoryCache(
+        TransactionHistoryCacheSettings settings,
+        MeterRegistry meterRegistry,
+        Ticker ticker
+    ) {
+        this.settings = settings;
+        this.heads =
+            Caffeine.newBuilder()
+                .maximumSize(settings.maximumAccounts())
+                .expireAfter(new LoadTimeExpiry(settings.timeToLive()))
+                .ticker(ticker)
+                .build();
+        this.hits =
+            Counter.builder("transaction.history.cache.requests")
+                .tag("result", "hit")
+                .description("History pages served from the latest transactions kept in memory")
+                .register(meterRegistry);
+        this.misses =
+            Counter.builder("transaction.history.cache.requests")
+                .tag("result", "miss")
+                .description("History pages that had to load the latest transactions of the account")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return empty when the cache is disabled or the records do not fit into a head
+     */
+    public Optional<List<TransactionHistoryRecordProjection>> findLatest(
+        int accountId,
+        long offset,
+        int count,
+        BiFunction<Integer, Integer, List<TransactionHistoryRecordProjection>> loader
+    ) {
+        if (!settings.enabled() || offset + count > settings.recordsPerAccount()) {
+            return Optional.empty();
+        }
+
+        var loaded = new boolean[1];
+        var head =
+            heads.get(accountId, id -> {
+                loaded[0] = true;
+                return Head.of(loader.apply(id, settings.recordsPerAccount() + 1), settings.recordsPerAccount());
+            });
+
+        (loaded[0] ? misses : hits).increment();
+
+        return Optional.of(head.slice(offset, count));
+    }
+
+    public void record(int accountId, TransactionHistoryRecordProjection record) {
+        heads.asMap().computeIfPresent(accountId, (id, head) -> head.with(record, settings.recordsPerAccount()));
+    }
+
+    public void evict(int accountId) {
+        heads.invalidate(accountId);
+    }
+
+    private record LoadTimeExpiry(
+        Duration timeToLive
+    ) implements Expiry<Integer, Head> {
+
+        @Override
+        public long expireAfterCreate(Integer accountId, Head head, long currentTime) {
+            return timeToLive.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Integer accountId, Head head, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(Integer accountId, Head head, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    // complete when the records are the whole history of the account rather than its latest part
+    private record Head(
+        List<TransactionHistoryRecordProjection> records,
+        boolean complete
+    ) {
+
+        static Head of(List<TransactionHistoryRecordProjection> latest, int capacity) {
+            return
+                latest.size() > capacity
+                    ? new Head(List.copyOf(latest.subList(0, capacity)), false)
+                    : new Head(List.copyOf(latest), true);
+        }
+
+        List<TransactionHistoryRecordProjection> slice(long offset, int count) {
+            var from = (int) Math.min(offset, records.size());
+            var to = (int) Math.min(offset + count, records.size());
+
+            return records.subList(from, to);
+        }
+
+        Head with(TransactionHistoryRecordProjection record, int capacity) {
+            // a head loaded while the transaction was being committed may already contain it
+            if (records.stream().anyMatch(it -> it.transactionId().equals(record.transactionId()))) {
+                return this;
+            }
+
+            var updated = new ArrayList<>(records);
+            var position = 0;
+
+            while (position < updated.size() && LATEST_FIRST.compare(updated.get(position), record) < 0) {
+                position++;
+            }
+
+            updated.add(position, record);
+
+            return
+                complete
+                    ? Head.of(updated, capacity)
+                    : new Head(List.copyOf(updated.subList(0, Math.min(updated.size(), capacity))), false);
+        }
+    }
+}
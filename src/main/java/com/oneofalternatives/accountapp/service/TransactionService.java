@@ -1,17 +1,33 @@
 package com.oneofalternatives.accountapp.service;
 
+import com.oneofalternatives.accountapp.error.AccountLockTimeoutError;
+import com.oneofalternatives.accountapp.error.CurrencyExchangeResultInterpretationError;
+import com.oneofalternatives.accountapp.error.CurrencyExchangeServiceError;
 import com.oneofalternatives.accountapp.error.FundTransferValidationError;
+import com.oneofalternatives.accountapp.error.PaginationValidationError;
+import com.oneofalternatives.accountapp.api.CursorPageProjection;
+import com.oneofalternatives.accountapp.api.FundTransferRequestProjection;
+import com.oneofalternatives.accountapp.api.FundTransferResultProjection;
+import com.oneofalternatives.accountapp.api.FxQuoteProjection;
 import com.oneofalternatives.accountapp.api.PageProjection;
+import com.oneofalternatives.accountapp.api.TransactionHistoryCursor;
 import com.oneofalternatives.accountapp.api.TransactionHistoryRecordProjection;
+import com.oneofalternatives.accountapp.api.TransactionHistoryRecordProjection.AccountBaseInfoProjection;
+import com.oneofalternatives.accountapp.api.TransactionHistoryRecordProjection.Direction;
 import com.oneofalternatives.accountapp.integration.CurrencyConversionClient;
+import com.oneofalternatives.accountapp.integration.CurrencyPair;
 import com.oneofalternatives.accountapp.model.Account;
 import com.oneofalternatives.accountapp.model.Transaction;
 import com.oneofalternatives.accountapp.repository.AccountRepository;
 import com.oneofalternatives.accountapp.repository.OffsetLimitPageRequest;
+import com.oneofalternatives.accountapp.repository.TransactionHistoryRepository;
 import com.oneofalternatives.accountapp.repository.TransactionRepository;
 import com.oneofalternatives.accountapp.settings.MoneySettings;
+import com.oneofalternatives.accountapp.settings.TransferBatchSettings;
 import jakarta.annotation.Nonnull;
-import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
@@ -20,30 +36,62 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static java.util.function.Predicate.not;
 import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
 import static org.apache.commons.collections4.CollectionUtils.isNotEmpty;
 import static org.springframework.data.domain.Sort.Direction.DESC;
 
 @Service
 public class TransactionService {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(TransactionService.class);
+
+    private static final String ACCOUNT_BUSY_MESSAGE = "Account is busy with other transfers, try again later";
+    private static final String GROUP_FAILED_MESSAGE = "Transfer could not be registered, try again later";
+
     private final TransactionRepository transactionRepository;
+    private final TransactionHistoryRepository transactionHistoryRepository;
+    private final TransactionHistoryCache transactionHistoryCache;
     private final AccountRepository accountRepository;
     private final CurrencyConversionClient currencyConversionClient;
+    private final FxQuoteStore fxQuoteStore;
+    private final FundTransferLedger fundTransferLedger;
+    private final AccountLockManager accountLockManager;
+    private final TransferRetryPolicy transferRetryPolicy;
+    private final TransferBatchScheduler transferBatchScheduler;
+    private final TransferBatchSettings transferBatchSettings;
     private final MoneySettings moneySettings;
 
     public TransactionService(
         TransactionRepository transactionRepository,
+        TransactionHistoryRepository transactionHistoryRepository,
+        TransactionHistoryCache transactionHistoryCache,
         AccountRepository accountRepository,
         CurrencyConversionClient currencyConversionClient,
+        FxQuoteStore fxQuoteStore,
+        FundTransferLedger fundTransferLedger,
+        AccountLockManager accountLockManager,
+        TransferRetryPolicy transferRetryPolicy,
+        TransferBatchScheduler transferBatchScheduler,
+        TransferBatchSettings transferBatchSettings,
         MoneySettings moneySettings
     ) {
         this.transactionRepository = transactionRepository;
+        this.transactionHistoryRepository = transactionHistoryRepository;
+        this.transactionHistoryCache = transactionHistoryCache;
         this.accountRepository = accountRepository;
         this.currencyConversionClient = currencyConversionClient;
+        this.fxQuoteStore = fxQuoteStore;
+        this.fundTransferLedger = fundTransferLedger;
+        this.accountLockManager = accountLockManager;
+        this.transferRetryPolicy = transferRetryPolicy;
+        this.transferBatchScheduler = transferBatchScheduler;
+        this.transferBatchSettings = transferBatchSettings;
         this.moneySettings = moneySettings;
     }
 
@@ -57,54 +105,111 @@ public class TransactionService {
     public PageProjection<TransactionHistoryRecordProjection> getTransactionHistoryByAccountId(
         int accountId,
         int offset,
-        int limit
+        int limit,
+        boolean includeTotal
     ) {
-        var transactionsPage =
-            transactionRepository
-                .findAllBySenderAccountIdOrReceiverAccountId(
-                    accountId,
-                    OffsetLimitPageRequest.of(offset, limit, Sort.by(DESC, "transactionDate"))
-                );
+        var pageRequest = OffsetLimitPageRequest.of(offset, limit, Sort.by(DESC, "transactionDate"));
+        // one extra row tells whether this is the last page, so the history is never counted
+        var records =
+            transactionHistoryCache
+                .findLatest(accountId, pageRequest.getOffset(), limit + 1, transactionHistoryRepository::findLatestPage)
+                .orElseGet(() -> transactionHistoryRepository.findPage(accountId, pageRequest.getOffset(), limit + 1));
 
-        var transactions = transactionsPage.getContent();
-
-        var transactionProjections =
-            transactions.stream()
-                .map(tx -> {
-                    var accountData = collectTransactionDataFromAccount(accountId, tx);
-
-                    // @formatter:off
-                    return
-                        TransactionHistoryRecordProjection.buildWith($ -> {
-                            $.transactionId     = tx.getId();
-                            $.peerAccount       = TransactionHistoryRecordProjection.AccountBaseInfoProjection.buildWith($$ -> {
-                                                    $$.id       = accountData.account().getId();
-                                                    $$.number   = accountData.account().getNumber();
-                                                });
-                            $.direction         = accountData.direction();
-                            $.amount            = accountData.amount();
-                            $.currency          = accountData.currency();
-                            $.transactionDate   = tx.getTransactionDate();
-                        });
-                    // @formatter:on
-                })
-                .toList();
+        var isLast = records.size() <= limit;
+        var pageRecords = isLast ? records : records.subList(0, limit);
+
+        var totalElements =
+            includeTotal
+                ? accountRepository.findTransactionCountById(accountId).orElse(0L)
+                : null;
 
         return
             new PageProjection<>(
-                transactionProjections,
-                transactionsPage.getPageable().getOffset(),
-                transactionsPage.getSize(),
-                transactionsPage.getNumber(),
-                transactionsPage.getTotalPages(),
-                transactionsPage.getNumberOfElements(),
-                transactionsPage.getTotalElements(),
-                transactionsPage.isFirst(),
-                transactionsPage.isLast()
+                pageRecords,
+                pageRequest.getOffset(),
+                pageRequest.getPageSize(),
+                pageRequest.getPageNumber(),
+                totalElements != null ? (int) Math.ceil(totalElements / (double) limit) : null,
+                pageRecords.size(),
+                totalElements,
+                !pageRequest.hasPrevious(),
+                isLast
+            );
+    }
+
+    public CursorPageProjection<TransactionHistoryRecordProjection> getTransactionHistoryByAccountIdAndCursor(
+        int accountId,
+        String cursor,
+        int limit
+    ) {
+        if (limit < 1) {
+            throw new PaginationValidationError("Limit must be greater than 0");
+        }
+
+        var records =
+            cursor == null
+                ? findLatestPage(accountId, limit + 1)
+                : findPageBefore(accountId, TransactionHistoryCursor.decode(cursor), limit + 1);
+
+        var isLast = records.size() <= limit;
+        var pageRecords = isLast ? records : records.subList(0, limit);
+        var lastRecord = pageRecords.isEmpty() ? null : pageRecords.get(pageRecords.size() - 1);
+
+        return
+            new CursorPageProjection<>(
+                pageRecords,
+                limit,
+                pageRecords.size(),
+                isLast
+                    ? null
+                    : new TransactionHistoryCursor(lastRecord.transactionDate(), lastRecord.transactionId()).encode(),
+                isLast
             );
     }
 
-    @Transactional
+    private List<TransactionHistoryRecordProjection> findLatestPage(int accountId, int limit) {
+        return
+            transactionHistoryCache
+                .findLatest(accountId, 0, limit, transactionHistoryRepository::findLatestPage)
+                .orElseGet(() -> transactionHistoryRepository.findLatestPage(accountId, limit));
+    }
+
+    private List<TransactionHistoryRecordProjection> findPageBefore(
+        int accountId,
+        TransactionHistoryCursor cursor,
+        int limit
+    ) {
+        return
+            transactionHistoryRepository.findPageBefore(
+                accountId,
+                cursor.transactionDate(),
+                cursor.transactionId(),
+                limit
+            );
+    }
+
+    @Nonnull
+    public FxQuoteProjection quoteTransfer(
+        @Nonnull Integer senderAccountId,
+        @Nonnull Integer receiverAccountId,
+        @Nonnull BigDecimal amount
+    ) {
+        verifyAmountScale(amount);
+        verifyAccountIds(senderAccountId, receiverAccountId);
+
+        var accounts = loadAccounts(senderAccountId, receiverAccountId);
+
+        var sourceCurrency = accounts.sender().getCurrency();
+        var targetCurrency = accounts.receiver().getCurrency();
+
+        var sourceAmount =
+            sourceCurrency.equals(targetCurrency)
+                ? amount
+                : convert(amount, sourceCurrency, targetCurrency);
+
+        return fxQuoteStore.issue(senderAccountId, receiverAccountId, sourceAmount, sourceCurrency, amount, targetCurrency);
+    }
+
     @Nonnull
     public Transaction transferFunds(
         @Nonnull Integer senderAccountId,
@@ -116,6 +221,174 @@ public class TransactionService {
         verifyAmountScale(amount);
         verifyAccountIds(senderAccountId, receiverAccountId);
 
+        var accounts = loadAccounts(senderAccountId, receiverAccountId);
+
+        var sourceCurrency = accounts.sender().getCurrency();
+        var targetCurrency = accounts.receiver().getCurrency();
+
+        // converted before the ledger transaction starts, so a slow rate service holds no connection
+        var sourceAmount =
+            sourceCurrency.equals(targetCurrency)
+                ? amount
+                : convert(amount, sourceCurrency, targetCurrency);
+
+        return registerTransfer(accounts, sourceAmount, amount, transactionDate);
+    }
+
+    @Nonnull
+    public Transaction transferFunds(
+        @Nonnull Integer senderAccountId,
+        @Nonnull Integer receiverAccountId,
+        @Nonnull BigDecimal amount,
+        @Nonnull UUID quoteId
+    ) {
+        var transactionDate = LocalDateTime.now();
+
+        verifyAmountScale(amount);
+        verifyAccountIds(senderAccountId, receiverAccountId);
+
+        var quote = fxQuoteStore.find(quoteId).orElseThrow(() -> quoteNotFound(quoteId));
+
+        var accounts = loadAccounts(senderAccountId, receiverAccountId);
+
+        verifyQuoteMatchesTransfer(quote, accounts, amount);
+
+        // taking it atomically is what keeps the quote single-use between concurrent transfers
+        if (fxQuoteStore.take(quoteId).isEmpty()) {
+            throw quoteNotFound(quoteId);
+        }
+
+        try {
+            return registerTransfer(accounts, quote.sourceAmount(), amount, transactionDate);
+        } catch (RuntimeException e) {
+            fxQuoteStore.restore(quote);
+            throw e;
+        }
+    }
+
+    @Nonnull
+    public List<FundTransferResultProjection> transferFundsInBatch(@Nonnull List<FundTransferRequestProjection> requests) {
+        if (requests.size() > transferBatchSettings.maximumSize()) {
+            throw new FundTransferValidationError(
+                "Batch must not contain more than " + transferBatchSettings.maximumSize() + " transfers");
+        }
+
+        var transactionDate = LocalDateTime.now();
+
+        var accountsById =
+            accountRepository
+                .findAllById(
+                    requests.stream()
+                        .filter(Objects::nonNull)
+                        .flatMap(request -> Stream.of(request.senderAccountId(), request.receiverAccountId()))
+                        .filter(Objects::nonNull)
+                        .collect(toSet())
+                )
+                .stream()
+                .collect(toMap(Account::getId, Function.identity()));
+
+        var results = new FundTransferResultProjection[requests.size()];
+        var preparedIndexes = new ArrayList<Integer>();
+        var preparedTransfers = new ArrayList<FundTransferLedger.Transfer>();
+        var reciprocalRates = new HashMap<CurrencyPair, RateLookup>();
+
+        for (var index = 0; index < requests.size(); index++) {
+            var request = requests.get(index);
+
+            try {
+                verifyRequestIsComplete(request);
+                verifyAmountIsPositive(request.amount());
+                verifyAmountScale(request.amount());
+                verifyAccountIds(request.senderAccountId(), request.receiverAccountId());
+                verifyAccountsExist(List.of(request.senderAccountId(), request.receiverAccountId()), accountsById);
+
+                var sender = accountsById.get(request.senderAccountId());
+                var receiver = accountsById.get(request.receiverAccountId());
+
+                var sourceAmount =
+                    sender.getCurrency().equals(receiver.getCurrency())
+                        ? request.amount()
+                        : reciprocalRates
+                            .computeIfAbsent(
+                                CurrencyPair.of(sender.getCurrency(), receiver.getCurrency()),
+                                pair -> RateLookup.of(() -> reciprocalRateFor(pair.fromCurrency(), pair.toCurrency()))
+                            )
+                            .convert(request.amount(), moneySettings);
+
+                preparedIndexes.add(index);
+                preparedTransfers.add(
+                    new FundTransferLedger.Transfer(
+                        sender.getId(),
+                        receiver.getId(),
+                        sender.getCurrency(),
+                        sourceAmount,
+                        receiver.getCurrency(),
+                        request.amount(),
+                        transactionDate
+                    )
+                );
+            } catch (FundTransferValidationError | CurrencyExchangeServiceError | CurrencyExchangeResultInterpretationError e) {
+                results[index] = FundTransferResultProjection.failed(index, e.getMessage());
+            }
+        }
+
+        if (!preparedTransfers.isEmpty()) {
+            var outcomes =
+                transferBatchScheduler.execute(
+                    preparedTransfers,
+                    // linked by lock stripe rather than account, so groups never wait for each other's locks
+                    transfer ->
+                        List.of(
+                            accountLockManager.stripeOf(transfer.senderAccountId()),
+                            accountLockManager.stripeOf(transfer.receiverAccountId())
+                        ),
+                    this::registerTransferGroup
+                );
+
+            for (var prepared = 0; prepared < preparedTransfers.size(); prepared++) {
+                var index = preparedIndexes.get(prepared);
+                var outcome = outcomes.get(prepared);
+
+                if (outcome.error() == null) {
+                    recordInHistoryCache(preparedTransfers.get(prepared), outcome.transactionId(), accountsById);
+                }
+
+                results[index] =
+                    outcome.error() == null
+                        ? FundTransferResultProjection.succeeded(
+                            index,
+                            outcome.transactionId(),
+                            preparedTransfers.get(prepared).sourceAmount()
+                        )
+                        : FundTransferResultProjection.failed(index, outcome.error());
+            }
+        }
+
+        return List.of(results);
+    }
+
+    private List<FundTransferLedger.Outcome> registerTransferGroup(List<FundTransferLedger.Transfer> transfers) {
+        var accountIds =
+            transfers.stream()
+                .flatMap(transfer -> Stream.of(transfer.senderAccountId(), transfer.receiverAccountId()))
+                .collect(toSet());
+
+        try {
+            return
+                transferRetryPolicy.execute(
+                    accountIds,
+                    () -> accountLockManager.withLocks(accountIds, () -> fundTransferLedger.registerAll(transfers))
+                );
+        } catch (AccountLockTimeoutError | ConcurrencyFailureException e) {
+            return Collections.nCopies(transfers.size(), FundTransferLedger.Outcome.failed(ACCOUNT_BUSY_MESSAGE));
+        } catch (RuntimeException e) {
+            // other groups of the batch may have committed already, so this one fails on its own
+            LOGGER.error("Failed to register {} batched transfers of accounts {}", transfers.size(), accountIds, e);
+            return Collections.nCopies(transfers.size(), FundTransferLedger.Outcome.failed(GROUP_FAILED_MESSAGE));
+        }
+    }
+
+    private TransferAccounts loadAccounts(Integer senderAccountId, Integer receiverAccountId) {
         var accountsById =
             accountRepository
                 .findAllById(Set.of(senderAccountId, receiverAccountId))
@@ -124,31 +397,91 @@ public class TransactionService {
 
         verifyAccountsExist(List.of(senderAccountId, receiverAccountId), accountsById);
 
-        var senderAccount = accountsById.get(senderAccountId);
-        var receiverAccount = accountsById.get(receiverAccountId);
+        return new TransferAccounts(accountsById.get(senderAccountId), accountsById.get(receiverAccountId));
+    }
+
+    private Transaction registerTransfer(
+        TransferAccounts accounts,
+        BigDecimal sourceAmount,
+        BigDecimal amount,
+        LocalDateTime transactionDate
+    ) {
+        var transfer =
+            new FundTransferLedger.Transfer(
+                accounts.sender().getId(),
+                accounts.receiver().getId(),
+                accounts.sender().getCurrency(),
+                sourceAmount,
+                accounts.receiver().getCurrency(),
+                amount,
+                transactionDate
+            );
 
-        var sourceCurrency = senderAccount.getCurrency();
-        var targetCurrency = receiverAccount.getCurrency();
+        var accountIds = List.of(transfer.senderAccountId(), transfer.receiverAccountId());
 
-        var sourceAmount =
-            sourceCurrency.equals(targetCurrency)
-                ? amount
-                : convert(amount, sourceCurrency, targetCurrency);
+        // each attempt takes the locks again, so other transfers of the accounts can run while this one backs off
+        var transaction =
+            transferRetryPolicy.execute(
+                accountIds,
+                () -> accountLockManager.withLocks(accountIds, () -> fundTransferLedger.register(transfer))
+            );
+
+        recordInHistoryCache(
+            transfer,
+            transaction.getId(),
+            Map.of(accounts.sender().getId(), accounts.sender(), accounts.receiver().getId(), accounts.receiver())
+        );
+
+        return transaction;
+    }
 
-        verifyThatBalanceIsSufficient(senderAccount.getBalance(), sourceAmount);
+    // only called after the ledger transaction committed, so the cache never shows a rolled back transfer
+    private void recordInHistoryCache(
+        FundTransferLedger.Transfer transfer,
+        Integer transactionId,
+        Map<Integer, Account> accountsById
+    ) {
+        var sender = accountsById.get(transfer.senderAccountId());
+        var receiver = accountsById.get(transfer.receiverAccountId());
+
+        transactionHistoryCache.record(
+            sender.getId(),
+            new TransactionHistoryRecordProjection(
+                transactionId,
+                new AccountBaseInfoProjection(receiver.getId(), receiver.getNumber()),
+                Direction.OUTBOUND,
+                transfer.sourceAmount().setScale(moneySettings.scale()),
+                transfer.sourceCurrency(),
+                transfer.transactionDate()
+            )
+        );
+        transactionHistoryCache.record(
+            receiver.getId(),
+            new TransactionHistoryRecordProjection(
+                transactionId,
+                new AccountBaseInfoProjection(sender.getId(), sender.getNumber()),
+                Direction.INBOUND,
+                transfer.targetAmount().setScale(moneySettings.scale()),
+                transfer.targetCurrency(),
+                transfer.transactionDate()
+            )
+        );
+    }
 
-        var transaction = new Transaction();
-        transaction.setSenderAccount(senderAccount);
-        transaction.setReceiverAccount(receiverAccount);
-        transaction.setSourceAmount(sourceAmount);
-        transaction.setTargetAmount(amount);
-        transaction.setTransactionDate(transactionDate);
+    private static void verifyRequestIsComplete(FundTransferRequestProjection request) {
+        if (request == null) {
+            throw new FundTransferValidationError("Transfer must not be null");
+        }
 
-        senderAccount.setBalance(senderAccount.getBalance().subtract(sourceAmount));
-        receiverAccount.setBalance(receiverAccount.getBalance().add(amount));
+        if (request.senderAccountId() == null || request.receiverAccountId() == null || request.amount() == null) {
+            throw new FundTransferValidationError("Sender account ID, receiver account ID and amount are required");
+        }
+    }
 
-        accountRepository.saveAll(Set.of(senderAccount, receiverAccount));
-        return transactionRepository.save(transaction);
+    private static void verifyAmountIsPositive(BigDecimal amount) {
+        if (amount.signum() <= 0) {
+            throw new FundTransferValidationError("Amount must be greater than 0");
+        }
     }
 
     private void verifyAmountScale(BigDecimal amount) {
@@ -185,10 +518,14 @@ public class TransactionService {
     }
 
     private BigDecimal convert(BigDecimal amount, Currency sourceCurrency, Currency targetCurrency) {
+        var reciprocalRate = reciprocalRateFor(sourceCurrency, targetCurrency);
+        return amount.multiply(reciprocalRate).setScale(moneySettings.scale(), moneySettings.roundingMode());
+    }
+
+    private BigDecimal reciprocalRateFor(Currency sourceCurrency, Currency targetCurrency) {
         verifyThatCurrenciesAreSupported(sourceCurrency, targetCurrency);
 
-        var directRate = currencyConversionClient.getDirectRate(sourceCurrency, targetCurrency);
-        return amount.divide(directRate, moneySettings.scale(), moneySettings.roundingMode());
+        return currencyConversionClient.getReciprocalRate(sourceCurrency, targetCurrency);
     }
 
     private void verifyThatCurrenciesAreSupported(Currency... currencies) {
@@ -211,43 +548,52 @@ public class TransactionService {
         }
     }
 
-    private static void verifyThatBalanceIsSufficient(BigDecimal accountBalance, BigDecimal transactionAmount) {
-        if (accountBalance.subtract(transactionAmount).compareTo(BigDecimal.ZERO) < 0) {
-            throw new FundTransferValidationError("Source account has insufficient balance");
-        }
+    private static FundTransferValidationError quoteNotFound(UUID quoteId) {
+        return new FundTransferValidationError("Quote " + quoteId + " does not exist or has expired");
     }
 
-    private static TransactionDataFromAccount collectTransactionDataFromAccount(
-        int accountId,
-        Transaction tx
+    private static void verifyQuoteMatchesTransfer(
+        FxQuoteProjection quote,
+        TransferAccounts accounts,
+        BigDecimal amount
     ) {
-        var direction =
-            tx.getSenderAccount().getId() == accountId
-                ? TransactionHistoryRecordProjection.Direction.OUTBOUND
-                : TransactionHistoryRecordProjection.Direction.INBOUND;
+        var matches =
+            quote.senderAccountId().equals(accounts.sender().getId())
+                && quote.receiverAccountId().equals(accounts.receiver().getId())
+                && quote.targetAmount().compareTo(amount) == 0
+                && quote.sourceCurrency().equals(accounts.sender().getCurrency())
+                && quote.targetCurrency().equals(accounts.receiver().getCurrency());
+
+        if (!matches) {
+            throw new FundTransferValidationError("Quote " + quote.quoteId() + " was issued for a different transfer");
+        }
+    }
 
-        var account =
-            direction == TransactionHistoryRecordProjection.Direction.OUTBOUND
-                ? tx.getReceiverAccount()
-                : tx.getSenderAccount();
+    private record TransferAccounts(
+        Account sender,
+        Account receiver
+    ) { }
 
-        var amount =
-            direction == TransactionHistoryRecordProjection.Direction.OUTBOUND
-                ? tx.getSourceAmount()
-                : tx.getTargetAmount();
+    // keeps failed lookups too, so a failing currency pair is requested once per batch
+    private record RateLookup(
+        BigDecimal reciprocalRate,
+        RuntimeException error
+    ) {
 
-        var currency =
-            direction == TransactionHistoryRecordProjection.Direction.OUTBOUND
-                ? tx.getSenderAccount().getCurrency()
-                : tx.getReceiverAccount().getCurrency();
+        static RateLookup of(Supplier<BigDecimal> lookup) {
+            try {
+                return new RateLookup(lookup.get(), null);
+            } catch (FundTransferValidationError | CurrencyExchangeServiceError | CurrencyExchangeResultInterpretationError e) {
+                return new RateLookup(null, e);
+            }
+        }
 
-        return new TransactionDataFromAccount(direction, account, amount, currency);
-    }
+        BigDecimal convert(BigDecimal amount, MoneySettings moneySettings) {
+            if (error != null) {
+                throw error;
+            }
 
-    private record TransactionDataFromAccount(
-        TransactionHistoryRecordProjection.Direction direction,
-        Account account,
-        BigDecimal amount,
-        Currency currency
-    ) { }
+            return amount.multiply(reciprocalRate).setScale(moneySettings.scale(), moneySettings.roundingMode());
+        }
+    }
 }
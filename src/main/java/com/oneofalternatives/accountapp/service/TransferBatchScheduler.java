@@ -0,0 +1,179 @@
+package com.oneofalternatives.accountapp.service;
+
+import com.oneofalternatives.accountapp.settings.TransferBatchSettings;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Items sharing a key end up in the same group, in submission order. Groups are packed into at most
+ * {@code parallelism} parts that run in parallel.
+ */
+@Component
+public class TransferBatchScheduler implements AutoCloseable {
+
+    private final int parallelism;
+    private final ExecutorService executor;
+
+    public TransferBatchScheduler(TransferBatchSettings settings) {
+        this.parallelism = settings.parallelism();
+
+        var threadFactory = new CustomizableThreadFactory("transfer-batch-");
+        threadFactory.setDaemon(true);
+
+        this.executor = Executors.newFixedThreadPool(settings.parallelism(), threadFactory);
+    }
+
+    /**
+     * @return results in the order of the given items; a failing group is rethrown only after all groups are done
+     */
+    public <T, R> List<R> execute(
+        List<T> items,
+        Function<T, Collection<Integer>> keysOf,
+        Function<List<T>, List<R>> group
+    ) {
+        var groups = pack(partition(items, keysOf), parallelism);
+
+        if (groups.size() <= 1) {
+            return group.apply(items);
+        }
+
+        var futures =
+            groups.stream()
+                .map(indexes -> executor.submit(() -> group.apply(indexes.stream().map(items::get).toList())))
+                .toList();
+
+        var results = new ArrayList<R>(Collections.nCopies(items.size(), null));
+        RuntimeException failure = null;
+
+        for (var groupIndex = 0; groupIndex < groups.size(); groupIndex++) {
+            var indexes = groups.get(groupIndex);
+
+            try {
+                var groupResults = await(futures.get(groupIndex));
+
+                for (var position = 0; position < indexes.size(); position++) {
+                    results.set(indexes.get(position), groupResults.get(position));
+                }
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+
+        return results;
+    }
+
+    static <T> List<List<Integer>> partition(List<T> items, Function<T, Collection<Integer>> keysOf) {
+        var parents = new HashMap<Integer, Integer>();
+        var groupKeys = new ArrayList<>(items.size());
+
+        for (var item : items) {
+            Integer firstRoot = null;
+
+            for (var key : keysOf.apply(item)) {
+                var root = find(parents, key);
+
+                if (firstRoot == null) {
+                    firstRoot = root;
+                } else if (!root.equals(firstRoot)) {
+                    parents.put(root, firstRoot);
+                }
+            }
+
+            groupKeys.add(firstRoot != null ? firstRoot : new Object());
+        }
+
+        var groups = new LinkedHashMap<Object, List<Integer>>();
+
+        for (var index = 0; index < items.size(); index++) {
+            var key = groupKeys.get(index);
+            var root = key instanceof Integer rootKey ? find(parents, rootKey) : key;
+
+            groups.computeIfAbsent(root, ignored -> new ArrayList<>()).add(index);
+        }
+
+        return List.copyOf(groups.values());
+    }
+
+    // largest groups first into the least filled bin; ascending indexes keep the submission order
+    static List<List<Integer>> pack(List<List<Integer>> groups, int binCount) {
+        if (groups.size() <= binCount) {
+            return groups;
+        }
+
+        var bins = new PriorityQueue<List<Integer>>(binCount, Comparator.comparingInt(List::size));
+
+        for (var bin = 0; bin < binCount; bin++) {
+            bins.add(new ArrayList<>());
+        }
+
+        groups.stream()
+            .sorted(Comparator.<List<Integer>>comparingInt(List::size).reversed())
+            .forEach(indexes -> {
+                var bin = bins.poll();
+                bin.addAll(indexes);
+                bins.add(bin);
+            });
+
+        return
+            bins.stream()
+                .filter(bin -> !bin.isEmpty())
+                .map(bin -> bin.stream().sorted().toList())
+                .sorted(Comparator.comparing(bin -> bin.get(0)))
+                .toList();
+    }
+
+    private static Integer find(Map<Integer, Integer> parents, Integer key) {
+        parents.putIfAbsent(key, key);
+
+        var root = key;
+
+        while (!parents.get(root).equals(root)) {
+            root = parents.get(root);
+        }
+
+        var node = key;
+
+        while (!node.equals(root)) {
+            var next = parents.get(node);
+            parents.put(node, root);
+            node = next;
+        }
+
+        return root;
+    }
+
+    private static <R> List<R> await(Future<List<R>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for transfer group", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+
+            throw new IllegalStateException("Transfer group failed", e.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
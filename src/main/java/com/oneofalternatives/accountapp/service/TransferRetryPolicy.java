@@ -0,0 +1,77 @@
+package com.oneofalternatives.accountapp.service;
+
+import com.oneofalternatives.accountapp.settings.TransferRetrySettings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Backs off with full jitter between attempts. The action should take its account locks itself, so they are not held
+ * while backing off.
+ */
+@Component
+public class TransferRetryPolicy {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TransferRetryPolicy.class);
+
+    private final TransferRetrySettings settings;
+    private final Counter conflicts;
+    private final Counter retries;
+
+    public TransferRetryPolicy(
+        TransferRetrySettings settings,
+        MeterRegistry meterRegistry
+    ) {
+        this.settings = settings;
+        this.conflicts =
+            Counter.builder("account.transfer.conflicts")
+                .description("Transfer transactions that lost a race for an account row")
+                .register(meterRegistry);
+        this.retries =
+            Counter.builder("account.transfer.retries")
+                .description("Transfer transactions run again after a conflict")
+                .register(meterRegistry);
+    }
+
+    public <T> T execute(Collection<Integer> accountIds, Supplier<T> transfer) {
+        for (var attempt = 1; ; attempt++) {
+            try {
+                return transfer.get();
+            } catch (ConcurrencyFailureException e) {
+                conflicts.increment();
+
+                if (attempt >= settings.maxAttempts()) {
+                    LOGGER.warn("Transfer of accounts {} still conflicting after {} attempts", accountIds, attempt);
+                    throw e;
+                }
+
+                LOGGER.debug("Transfer of accounts {} conflicted on attempt {}, retrying", accountIds, attempt);
+                retries.increment();
+                backOff(attempt, e);
+            }
+        }
+    }
+
+    private void backOff(int attempt, ConcurrencyFailureException conflict) {
+        var ceiling =
+            Math.min(
+                settings.maximumBackoff().toNanos(),
+                settings.initialBackoff().toNanos() << Math.min(attempt - 1, 20)
+            );
+
+        try {
+            TimeUnit.NANOSECONDS.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw conflict;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.oneofalternatives.accountapp.settings;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "account-app.account-lock")
+public record AccountLockSettings(
+    int stripes,
+    Duration lockTimeout
+) { }
@@ -0,0 +1,11 @@
+package com.oneofalternatives.accountapp.settings;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "account-app.fx-quote")
+public record FxQuoteSettings(
+    Duration timeToLive,
+    long maximumSize
+) { }
@@ -0,0 +1,13 @@
+package com.oneofalternatives.accountapp.settings;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "account-app.transaction-history-cache")
+public record TransactionHistoryCacheSettings(
+    boolean enabled,
+    int recordsPerAccount,
+    long maximumAccounts,
+    Duration timeToLive
+) { }
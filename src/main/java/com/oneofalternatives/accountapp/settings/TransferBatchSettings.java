@@ -0,0 +1,9 @@
+package com.oneofalternatives.accountapp.settings;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "account-app.transfer-batch")
+public record TransferBatchSettings(
+    int parallelism,
+    int maximumSize
+) { }
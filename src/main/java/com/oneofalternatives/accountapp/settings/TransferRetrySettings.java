@@ -0,0 +1,12 @@
+package com.oneofalternatives.accountapp.settings;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "account-app.transfer-retry")
+public record TransferRetrySettings(
+    int maxAttempts,
+    Duration initialBackoff,
+    Duration maximumBackoff
+) { }
@@ -0,0 +1,128 @@
+package com.oneofalternatives.accountapp.integration;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.oneofalternatives.accountapp.error.CurrencyExchangeServiceError;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.oneofalternatives.accountapp.util.Currencies.*;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingCurrencyConversionClientTest {
+
+    private static final CurrencyConversionCacheSettings SETTINGS =
+        new CurrencyConversionCacheSettings(true, Duration.ofMinutes(10), Duration.ofMinutes(5), 100);
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final Ticker ticker = nanos::get;
+
+    @Mock
+    private CurrencyConversionClient delegate;
+
+    private CachingCurrencyConversionClient client;
+
+    @BeforeEach
+    void beforeEach() {
+        client = new CachingCurrencyConversionClient(delegate, SETTINGS, ticker, Runnable::run);
+    }
+
+    @Test
+    void getDirectRate_shouldServeRepeatedLookupsFromCache() {
+        when(delegate.getDirectRate(EUR, USD))
+            .thenReturn(BigDecimal.valueOf(1.09));
+
+        assertThat(client.getDirectRate(EUR, USD)).isEqualTo(BigDecimal.valueOf(1.09));
+        assertThat(client.getDirectRate(EUR, USD)).isEqualTo(BigDecimal.valueOf(1.09));
+
+        verify(delegate, times(1)).getDirectRate(EUR, USD);
+    }
+
+    @Test
+    void getDirectRate_shouldRefreshAccessedPairAfterRefreshInterval() {
+        when(delegate.getDirectRate(EUR, USD))
+            .thenReturn(BigDecimal.valueOf(1.09), BigDecimal.valueOf(1.10));
+
+        client.getDirectRate(EUR, USD);
+        advance(Duration.ofMinutes(6));
+        client.getDirectRate(EUR, USD);
+
+        assertThat(client.getDirectRate(EUR, USD)).isEqualTo(BigDecimal.valueOf(1.10));
+        verify(delegate, times(2)).getDirectRate(EUR, USD);
+    }
+
+    @Test
+    void getDirectRate_shouldReloadExpiredPair() {
+        when(delegate.getDirectRate(EUR, USD))
+            .thenReturn(BigDecimal.valueOf(1.09), BigDecimal.valueOf(1.10));
+
+        client.getDirectRate(EUR, USD);
+        advance(Duration.ofMinutes(11));
+
+        assertThat(client.getDirectRate(EUR, USD)).isEqualTo(BigDecimal.valueOf(1.10));
+        verify(delegate, times(2)).getDirectRate(EUR, USD);
+    }
+
+    @Test
+    void getDirectRate_shouldNotCacheErrors() {
+        when(delegate.getDirectRate(EUR, USD))
+            .thenThrow(new CurrencyExchangeServiceError("Error description"))
+            .thenReturn(BigDecimal.valueOf(1.09));
+
+        assertThatThrownBy(() -> client.getDirectRate(EUR, USD))
+            .isInstanceOf(CurrencyExchangeServiceError.class)
+            .hasMessage("Error description");
+
+        assertThat(client.getDirectRate(EUR, USD)).isEqualTo(BigDecimal.valueOf(1.09));
+    }
+
+    @Test
+    void getDirectRates_shouldLoadMissingRatesInOneBulkCall() {
+        when(delegate.getDirectRate(EUR, USD))
+            .thenReturn(BigDecimal.valueOf(1.09));
+        when(delegate.getDirectRates(EUR, Set.of(AUD, GBP)))
+            .thenReturn(Map.of(AUD, BigDecimal.valueOf(1.63), GBP, BigDecimal.valueOf(0.86)));
+
+        client.getDirectRate(EUR, USD);
+
+        assertThat(client.getDirectRates(EUR, Set.of(USD, AUD, GBP)))
+            .containsOnly(
+                entry(USD, BigDecimal.valueOf(1.09)),
+                entry(AUD, BigDecimal.valueOf(1.63)),
+                entry(GBP, BigDecimal.valueOf(0.86))
+            );
+        assertThat(client.getDirectRate(EUR, AUD)).isEqualTo(BigDecimal.valueOf(1.63));
+
+        verify(delegate).getDirectRate(EUR, USD);
+        verify(delegate).getDirectRates(EUR, Set.of(AUD, GBP));
+        verifyNoMoreInteractions(delegate);
+    }
+
+    @Test
+    void preload_shouldExpireRateTimeToLiveAfterItWasFetched() {
+        when(delegate.getDirectRate(EUR, USD))
+            .thenReturn(BigDecimal.valueOf(1.10));
+
+        client.preload(CurrencyPair.of(EUR, USD), BigDecimal.valueOf(1.09), Duration.ofMinutes(8));
+
+        assertThat(client.getDirectRate(EUR, USD)).isEqualTo(BigDecimal.valueOf(1.09));
+        advance(Duration.ofMinutes(3));
+
+        assertThat(client.getDirectRate(EUR, USD)).isEqualTo(BigDecimal.valueOf(1.10));
+        verify(delegate).getDirectRate(EUR, USD);
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+}
@@ -0,0 +1,147 @@
+package com.oneofalternatives.accountapp.integration;
+
+import com.oneofalternatives.accountapp.error.CurrencyExchangeServiceError;
+import com.oneofalternatives.accountapp.util.MutableClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+
+import static com.oneofalternatives.accountapp.util.Currencies.EUR;
+import static com.oneofalternatives.accountapp.util.Currencies.USD;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CircuitBreakingCurrencyConversionClientTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-14T12:00:00Z");
+    private static final CurrencyConversionCircuitBreakerSettings SETTINGS =
+        new CurrencyConversionCircuitBreakerSettings(
+            true,
+            2,
+            Duration.ofSeconds(3),
+            Duration.ofSeconds(30),
+            Duration.ofHours(1)
+        );
+
+    @Mock
+    private CurrencyConversionClient delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MutableClock clock;
+    private CircuitBreakingCurrencyConversionClient client;
+
+    @BeforeEach
+    void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock(NOW);
+        client = new CircuitBreakingCurrencyConversionClient(delegate, SETTINGS, meterRegistry, clock);
+    }
+
+    @Test
+    void getDirectRate_shouldFailFastAfterConsecutiveFailures() {
+        when(delegate.getDirectRate(EUR, USD))
+            .thenThrow(new CurrencyExchangeServiceError("Currency exchange service responded with status 500"));
+
+        assertThatThrownBy(() -> client.getDirectRate(EUR, USD)).hasMessageContaining("status 500");
+        assertThatThrownBy(() -> client.getDirectRate(EUR, USD)).hasMessageContaining("status 500");
+        assertThatThrownBy(() -> client.getDirectRate(EUR, USD))
+            .isInstanceOf(CurrencyExchangeServiceError.class)
+            .hasMessage("Currency exchange service is unavailable, circuit breaker is open");
+
+        verify(delegate, times(2)).getDirectRate(EUR, USD);
+        assertThat(stateGauge("open")).isEqualTo(1);
+        assertThat(meterRegistry.get("currency.converter.circuit.breaker.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void getDirectRate_shouldOpenAfterConsecutiveSlowCalls() {
+        when(delegate.getDirectRate(EUR, USD))
+            .thenAnswer(invocation -> {
+                clock.advance(Duration.ofSeconds(4));
+                return BigDecimal.valueOf(1.09);
+            });
+
+        client.getDirectRate(EUR, USD);
+        client.getDirectRate(EUR, USD);
+
+        assertThat(stateGauge("open")).isEqualTo(1);
+    }
+
+    @Test
+    void getDirectRate_shouldServeLastKnownGoodRateWhileOpen() {
+        when(delegate.getDirectRate(EUR, USD))
+            .thenReturn(BigDecimal.valueOf(1.09))
+            .thenThrow(new CurrencyExchangeServiceError("Currency exchange service responded with status 500"));
+
+        client.getDirectRate(EUR, USD);
+        clock.advance(Duration.ofMinutes(10));
+
+        assertThat(client.getDirectRate(EUR, USD)).isEqualTo(BigDecimal.valueOf(1.09));
+        assertThat(client.getDirectRate(EUR, USD)).isEqualTo(BigDecimal.valueOf(1.09));
+        assertThat(client.getDirectRate(EUR, USD)).isEqualTo(BigDecimal.valueOf(1.09));
+
+        verify(delegate, times(3)).getDirectRate(EUR, USD);
+        assertThat(meterRegistry.get("currency.converter.last.known.good.served").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void getDirectRate_shouldNotServeLastKnownGoodRateOlderThanMaximumAge() {
+        when(delegate.getDirectRate(EUR, USD))
+            .thenReturn(BigDecimal.valueOf(1.09))
+            .thenThrow(new CurrencyExchangeServiceError("Currency exchange service responded with status 500"));
+
+        client.getDirectRate(EUR, USD);
+        clock.advance(Duration.ofHours(2));
+
+        assertThatThrownBy(() -> client.getDirectRate(EUR, USD)).hasMessageContaining("status 500");
+    }
+
+    @Test
+    void getDirectRate_shouldCloseAfterSuccessfulTrialCall() {
+        when(delegate.getDirectRate(EUR, USD))
+            .thenThrow(new CurrencyExchangeServiceError("Currency exchange service responded with status 500"))
+            .thenThrow(new CurrencyExchangeServiceError("Currency exchange service responded with status 500"))
+            .thenReturn(BigDecimal.valueOf(1.09));
+
+        assertThatThrownBy(() -> client.getDirectRate(EUR, USD));
+        assertThatThrownBy(() -> client.getDirectRate(EUR, USD));
+        clock.advance(Duration.ofSeconds(30));
+
+        assertThat(client.getDirectRate(EUR, USD)).isEqualTo(BigDecimal.valueOf(1.09));
+        assertThat(stateGauge("closed")).isEqualTo(1);
+    }
+
+    @Test
+    void getDirectRate_shouldOpenAgain_whenTrialCallThrowsError() {
+        when(delegate.getDirectRate(EUR, USD))
+            .thenThrow(new CurrencyExchangeServiceError("Currency exchange service responded with status 500"))
+            .thenThrow(new CurrencyExchangeServiceError("Currency exchange service responded with status 500"))
+            .thenThrow(new StackOverflowError())
+            .thenReturn(BigDecimal.valueOf(1.09));
+
+        assertThatThrownBy(() -> client.getDirectRate(EUR, USD));
+        assertThatThrownBy(() -> client.getDirectRate(EUR, USD));
+        clock.advance(Duration.ofSeconds(30));
+
+        assertThatThrownBy(() -> client.getDirectRate(EUR, USD)).isInstanceOf(StackOverflowError.class);
+        assertThat(stateGauge("open")).isEqualTo(1);
+
+        clock.advance(Duration.ofSeconds(30));
+
+        assertThat(client.getDirectRate(EUR, USD)).isEqualTo(BigDecimal.valueOf(1.09));
+        assertThat(stateGauge("closed")).isEqualTo(1);
+    }
+
+    private double stateGauge(String state) {
+        return meterRegistry.get("currency.converter.circuit.breaker.state").tag("state", state).gauge().value();
+    }
+}
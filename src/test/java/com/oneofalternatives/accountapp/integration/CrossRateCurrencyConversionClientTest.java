@@ -0,0 +1,119 @@
+package com.oneofalternatives.accountapp.integration;
+
+import com.oneofalternatives.accountapp.error.CurrencyExchangeResultInterpretationError;
+import com.oneofalternatives.accountapp.settings.MoneySettings;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.Map;
+import java.util.Set;
+
+import static com.oneofalternatives.accountapp.util.Currencies.*;
+import static com.oneofalternatives.accountapp.util.MoneyConstants.ROUNDING_MODE;
+import static com.oneofalternatives.accountapp.util.MoneyConstants.SCALE;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CrossRateCurrencyConversionClientTest {
+
+    private static final Map<Currency, BigDecimal> USD_QUOTES =
+        Map.of(
+            EUR, new BigDecimal("1.1003280871"),
+            AUD, new BigDecimal("1.50")
+        );
+
+    @Mock
+    private CurrencyConversionClient delegate;
+
+    private CrossRateCurrencyConversionClient client;
+
+    @BeforeEach
+    void beforeEach() {
+        client = new CrossRateCurrencyConversionClient(delegate, USD, new MoneySettings(SCALE, ROUNDING_MODE));
+    }
+
+    @Test
+    void getDirectRate_shouldDeriveRateFromPivotQuotes() {
+        when(delegate.getDirectRates(USD, Set.of(EUR, AUD)))
+            .thenReturn(USD_QUOTES);
+
+        assertThat(client.getDirectRate(EUR, AUD)).isEqualTo(new BigDecimal("1.3632297654"));
+
+        verify(delegate).getDirectRates(USD, Set.of(EUR, AUD));
+        verifyNoMoreInteractions(delegate);
+    }
+
+    @Test
+    void getDirectRate_shouldInvertPivotQuote_whenConvertingToPivot() {
+        when(delegate.getDirectRates(USD, Set.of(EUR)))
+            .thenReturn(Map.of(EUR, new BigDecimal("1.1003280871")));
+
+        assertThat(client.getDirectRate(EUR, USD)).isEqualTo(new BigDecimal("0.9088198436"));
+    }
+
+    @Test
+    void getDirectRate_shouldUsePivotQuote_whenConvertingFromPivot() {
+        when(delegate.getDirectRates(USD, Set.of(AUD)))
+            .thenReturn(Map.of(AUD, new BigDecimal("1.50")));
+
+        assertThat(client.getDirectRate(USD, AUD)).isEqualByComparingTo(new BigDecimal("1.50"));
+    }
+
+    @Test
+    void getReciprocalRate_shouldDividePivotQuotesFromSinglePivotRequest() {
+        when(delegate.getDirectRates(USD, Set.of(EUR, AUD)))
+            .thenReturn(USD_QUOTES);
+
+        assertThat(client.getReciprocalRate(EUR, AUD))
+            .isEqualTo(new BigDecimal("0.7335520580666666666666666666666667"));
+
+        verify(delegate).getDirectRates(USD, Set.of(EUR, AUD));
+        verifyNoMoreInteractions(delegate);
+    }
+
+    @Test
+    void getReciprocalRate_shouldKeepPrecisionForAmounts_whenRateIsHigh() {
+        var idr = Currency.getInstance("IDR");
+
+        when(delegate.getDirectRates(USD, Set.of(idr)))
+            .thenReturn(Map.of(idr, new BigDecimal("15000")));
+
+        var sourceAmount =
+            new BigDecimal("1000000000")
+                .multiply(client.getReciprocalRate(USD, idr))
+                .setScale(SCALE, ROUNDING_MODE);
+
+        assertThat(sourceAmount).isEqualTo(new BigDecimal("66666.6666666667"));
+    }
+
+    @Test
+    void getDirectRates_shouldDeriveWholeRowFromSinglePivotRequest() {
+        when(delegate.getDirectRates(USD, Set.of(EUR, AUD)))
+            .thenReturn(USD_QUOTES);
+
+        assertThat(client.getDirectRates(AUD, Set.of(EUR, USD)))
+            .containsOnly(
+                entry(EUR, new BigDecimal("0.7335520581")),
+                entry(USD, new BigDecimal("0.6666666667"))
+            );
+
+        verify(delegate).getDirectRates(USD, Set.of(EUR, AUD));
+        verifyNoMoreInteractions(delegate);
+    }
+
+    @Test
+    void getDirectRate_shouldThrowException_whenPivotQuoteIsMissing() {
+        when(delegate.getDirectRates(USD, Set.of(EUR, GEL)))
+            .thenReturn(Map.of(EUR, new BigDecimal("1.1003280871")));
+
+        assertThatThrownBy(() -> client.getDirectRate(EUR, GEL))
+            .isInstanceOf(CurrencyExchangeResultInterpretationError.class)
+            .hasMessage("Currency exchange service did not return a quote for USDGEL");
+    }
+}
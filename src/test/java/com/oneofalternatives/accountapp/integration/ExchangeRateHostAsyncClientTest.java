@@ -0,0 +1,183 @@
+package com.oneofalternatives.accountapp.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oneofalternatives.accountapp.error.CurrencyExchangeServiceError;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static com.oneofalternatives.accountapp.util.Currencies.*;
+import static org.assertj.core.api.Assertions.*;
+
+class ExchangeRateHostAsyncClientTest {
+
+    private final CopyOnWriteArrayList<String> requestedQueries = new CopyOnWriteArrayList<>();
+
+    private HttpServer server;
+    private volatile String responseBody;
+    private volatile Duration responseDelay = Duration.ZERO;
+    private ExchangeRateHostAsyncClient client;
+
+    @BeforeEach
+    void beforeEach() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", this::respond);
+        server.start();
+
+        var settings =
+            new ExchangeRateHostIntegrationSettings(
+                "http://localhost:" + server.getAddress().getPort(),
+                "ACC-KEY-123",
+                Duration.ofSeconds(1),
+                Duration.ofMillis(500),
+                "exchangeratehost"
+            );
+
+        client =
+            new ExchangeRateHostAsyncClient(
+                HttpClient.newHttpClient(),
+                settings,
+                new ExchangeRateHostHttpClientSettings(4),
+                new ObjectMapper()
+            );
+    }
+
+    @AfterEach
+    void afterEach() {
+        server.stop(0);
+    }
+
+    @Test
+    void getDirectRate_shouldReturnRate() {
+        responseBody =
+            """
+                {
+                  "success": true,
+                  "source": "EUR",
+                  "quotes": {
+                    "EURUSD": 1.0952
+                  }
+                }
+                """;
+
+        assertThat(client.getDirectRate(EUR, USD)).isEqualTo(BigDecimal.valueOf(1.0952));
+        assertThat(requestedQueries).containsExactly("source=EUR&currencies=USD&access_key=ACC-KEY-123");
+    }
+
+    @Test
+    void getDirectRatesAsync_shouldReturnRates() {
+        responseBody =
+            """
+                {
+                  "success": true,
+                  "source": "EUR",
+                  "quotes": {
+                    "EURUSD": 1.0952,
+                    "EURAUD": 1.2345
+                  }
+                }
+                """;
+
+        assertThat(client.getDirectRatesAsync(EUR, Set.of(USD, AUD)))
+            .succeedsWithin(Duration.ofSeconds(1))
+            .isEqualTo(Map.of(USD, BigDecimal.valueOf(1.0952), AUD, BigDecimal.valueOf(1.2345)));
+    }
+
+    @Test
+    void getSupportedCurrencies_shouldPassError() {
+        responseBody =
+            """
+                {
+                  "success": false,
+                  "error": {
+                    "code": 104,
+                    "type": "usage_limit_reached",
+                    "info": "Your monthly usage limit has been reached."
+                  }
+                }
+                """;
+
+        assertThatThrownBy(client::getSupportedCurrencies)
+            .isInstanceOf(CurrencyExchangeServiceError.class)
+            .hasMessage(
+                "Currency exchange service failed to return list of supported currencies. " +
+                    "Reason code: 104. " +
+                    "Reason description: Your monthly usage limit has been reached."
+            );
+    }
+
+    @Test
+    void getDirectRate_shouldThrowException_whenDeadlineExceeded() {
+        responseDelay = Duration.ofSeconds(2);
+        responseBody = "{}";
+
+        assertThatThrownBy(() -> client.getDirectRate(EUR, USD))
+            .isInstanceOf(CurrencyExchangeServiceError.class)
+            .hasMessage("Currency exchange service did not respond in time");
+    }
+
+    @Test
+    void getDirectRateAsync_shouldFailAtOnce_whenTooManyRequestsAreInFlight() {
+        responseDelay = Duration.ofMillis(300);
+        responseBody = "{}";
+
+        var inFlight = IntStream.range(0, 4).mapToObj(i -> client.getDirectRateAsync(EUR, USD)).toList();
+
+        assertThat(client.getDirectRateAsync(EUR, USD))
+            .isCompletedExceptionally()
+            .failsWithin(Duration.ZERO)
+            .withThrowableOfType(ExecutionException.class)
+            .withCauseInstanceOf(CurrencyExchangeServiceError.class)
+            .withMessageContaining("Too many concurrent requests to currency exchange service");
+
+        inFlight.forEach(response -> response.handle((rate, error) -> rate).join());
+
+        responseDelay = Duration.ZERO;
+        responseBody =
+            """
+                {
+                  "success": true,
+                  "source": "EUR",
+                  "quotes": {
+                    "EURUSD": 1.0952
+                  }
+                }
+                """;
+
+        assertThat(client.getDirectRate(EUR, USD)).isEqualTo(BigDecimal.valueOf(1.0952));
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        requestedQueries.add(exchange.getRequestURI().getQuery());
+
+        try {
+            Thread.sleep(responseDelay.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        var body = responseBody.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+
+        try (var responseStream = exchange.getResponseBody()) {
+            responseStream.write(body);
+        }
+    }
+}
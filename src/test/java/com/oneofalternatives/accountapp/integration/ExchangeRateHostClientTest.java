@@ -2,6 +2,7 @@ package com.oneofalternatives.accountapp.integration;
 
 import com.oneofalternatives.accountapp.error.CurrencyExchangeResultInterpretationError;
 import com.oneofalternatives.accountapp.error.CurrencyExchangeServiceError;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -20,8 +21,10 @@ import org.springframework.test.web.client.ResponseCreator;
 import java.math.BigDecimal;
 import java.time.Duration;
 import java.util.Currency;
+import java.util.Set;
 import java.util.stream.Stream;
 
+import static com.oneofalternatives.accountapp.util.Currencies.AUD;
 import static com.oneofalternatives.accountapp.util.Currencies.EUR;
 import static com.oneofalternatives.accountapp.util.Currencies.USD;
 import static java.time.temporal.ChronoUnit.SECONDS;
@@ -42,8 +45,14 @@ class ExchangeRateHostClientTest {
     @Autowired
     private MockRestServiceServer server;
     @Autowired
+    private HedgingCurrencyConversionClient.Provider provider;
     private CurrencyConversionClient client;
 
+    @BeforeEach
+    void beforeEach() {
+        client = provider.client();
+    }
+
     @ParameterizedTest
     @MethodSource("samplesFor_errorResponses")
     void getSupportedCurrencies_shouldThrowException(
@@ -225,6 +234,40 @@ class ExchangeRateHostClientTest {
         assertThat(exchangeRate).isEqualTo(BigDecimal.valueOf(1.0952));
     }
 
+    @Test
+    void getDirectRates_shouldReturnRatesFromSingleRequest() {
+        server.expect(requestTo(
+                "http://api.exchangerate.host/live" +
+                    "?source=EUR&currencies=AUD,USD&access_key=ACC-KEY-123"
+            ))
+            .andRespond(
+                withSuccess(
+                    """
+                        {
+                          "success": true,
+                          "terms": "https:\\/\\/currencylayer.com\\/terms",
+                          "privacy": "https:\\/\\/currencylayer.com\\/privacy",
+                          "timestamp": 1705267263,
+                          "source": "EUR",
+                          "quotes": {
+                            "EURUSD": 1.0952,
+                            "EURAUD": 1.2345
+                          }
+                        }
+                        """,
+                    MediaType.APPLICATION_JSON
+                )
+            );
+
+        var exchangeRates = client.getDirectRates(EUR, Set.of(USD, AUD));
+
+        assertThat(exchangeRates)
+            .containsOnly(
+                entry(USD, BigDecimal.valueOf(1.0952)),
+                entry(AUD, BigDecimal.valueOf(1.2345))
+            );
+    }
+
     private static Stream<Arguments> samplesFor_errorResponses() {
         // @formatter:off
             return Stream.of(
@@ -246,7 +289,8 @@ class ExchangeRateHostClientTest {
                 "http://api.exchangerate.host",
                 "ACC-KEY-123",
                 Duration.of(1, SECONDS),
-                Duration.of(1, SECONDS)
+                Duration.of(1, SECONDS),
+                "exchangeratehost"
             );
         }
     }
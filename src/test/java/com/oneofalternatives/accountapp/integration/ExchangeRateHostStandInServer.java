@@ -0,0 +1,296 @@
+package com.oneofalternatives.accountapp.integration;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Local stand-in for exchangerate.host serving the {@code /list} and {@code /live} endpoints with deterministic rates,
+ * so the real integration path can be exercised without network. Latency, HTTP errors, {@code success:false} responses
+ * and the request quota can be changed while the server is running.
+ * <p>
+ * Run with {@code ./gradlew exchangeRateHostStandIn --args="--port=8089 --latency=uniform:PT0.05S:PT0.2S"}.
+ */
+public class ExchangeRateHostStandInServer implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExchangeRateHostStandInServer.class);
+
+    private static final List<Currency> CURRENCIES =
+        Currency.getAvailableCurrencies().stream()
+            .sorted(Comparator.comparing(Currency::getCurrencyCode))
+            .toList();
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicLong servedRequests = new AtomicLong();
+
+    private volatile LatencyDistribution latency = LatencyDistribution.fixed(Duration.ZERO);
+    private volatile double errorRate;
+    private volatile double failureRate;
+    private volatile long requestQuota;
+
+    public ExchangeRateHostStandInServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.setExecutor(executor);
+        server.createContext("/list", exchange -> respond(exchange, this::supportedCurrencies));
+        server.createContext("/live", exchange -> respond(exchange, this::liveQuotes));
+    }
+
+    public static void main(String[] args) throws IOException {
+        var options =
+            Arrays.stream(args)
+                .map(arg -> arg.replaceFirst("^--", "").split("=", 2))
+                .collect(Collectors.toMap(option -> option[0], option -> option.length > 1 ? option[1] : ""));
+
+        var server = new ExchangeRateHostStandInServer(Integer.parseInt(options.getOrDefault("port", "8089")));
+        server.setLatency(LatencyDistribution.parse(options.getOrDefault("latency", "fixed:PT0S")));
+        server.setErrorRate(Double.parseDouble(options.getOrDefault("error-rate", "0")));
+        server.setFailureRate(Double.parseDouble(options.getOrDefault("failure-rate", "0")));
+        server.setRequestQuota(Long.parseLong(options.getOrDefault("quota", "0")));
+        server.start();
+
+        LOGGER.info("exchangerate.host stand-in is listening on {}", server.rootUrl());
+    }
+
+    public ExchangeRateHostStandInServer start() {
+        server.start();
+        return this;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public String rootUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public long servedRequests() {
+        return servedRequests.get();
+    }
+
+    public void setLatency(LatencyDistribution latency) {
+        this.latency = latency;
+    }
+
+    /**
+     * Share of requests answered with HTTP 500.
+     */
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    /**
+     * Share of requests answered with HTTP 200 and a {@code success:false} payload.
+     */
+    public void setFailureRate(double failureRate) {
+        this.failureRate = failureRate;
+    }
+
+    /**
+     * Number of requests served before every further request is rejected as over quota, 0 for unlimited.
+     */
+    public void setRequestQuota(long requestQuota) {
+        this.requestQuota = requestQuota;
+    }
+
+    private void respond(HttpExchange exchange, ResponseBody successBody) throws IOException {
+        try (exchange) {
+            try {
+                answer(exchange, successBody);
+            } catch (InvalidRequest e) {
+                send(exchange, 200, failure(e.code, e.getMessage()));
+            } catch (RuntimeException e) {
+                LOGGER.error("Failed to answer {}", exchange.getRequestURI(), e);
+                send(exchange, 500, "text/plain", "Internal Server Error");
+            }
+        }
+    }
+
+    private void answer(HttpExchange exchange, ResponseBody successBody) throws IOException {
+        sleep(latency.next());
+
+        var query = queryParameters(exchange);
+        var random = ThreadLocalRandom.current();
+        var requestNumber = servedRequests.incrementAndGet();
+
+        if (random.nextDouble() < errorRate) {
+            send(exchange, 500, "text/plain", "Internal Server Error");
+        } else if (query.get("access_key") == null) {
+            send(exchange, 200, failure(101, "You have not supplied an API Access Key."));
+        } else if (requestQuota > 0 && requestNumber > requestQuota) {
+            send(exchange, 200, failure(104, "Your monthly usage limit has been reached."));
+        } else if (random.nextDouble() < failureRate) {
+            send(exchange, 200, failure(105, "The current subscription plan does not support this API endpoint."));
+        } else {
+            send(exchange, 200, successBody.render(query));
+        }
+    }
+
+    private String supportedCurrencies(Map<String, String> query) {
+        return
+            CURRENCIES.stream()
+                .map(currency -> "\"%s\":\"%s\"".formatted(currency.getCurrencyCode(), currency.getDisplayName(Locale.ENGLISH)))
+                .collect(Collectors.joining(",", "{\"success\":true,\"currencies\":{", "}}"));
+    }
+
+    private String liveQuotes(Map<String, String> query) {
+        var source =
+            currency(query.getOrDefault("source", "USD"), 201, "You have supplied an invalid Source Currency.");
+        var targets =
+            query.containsKey("currencies")
+                ? Arrays.stream(query.get("currencies").split(","))
+                    .map(code -> currency(code, 202, "You have provided one or more invalid Currency Codes."))
+                    .toList()
+                : CURRENCIES;
+
+        return
+            targets.stream()
+                .map(target -> "\"%s%s\":%s".formatted(source.getCurrencyCode(), target.getCurrencyCode(), rate(source, target)))
+                .collect(Collectors.joining(
+                    ",",
+                    "{\"success\":true,\"source\":\"%s\",\"quotes\":{".formatted(source.getCurrencyCode()),
+                    "}}"
+                ));
+    }
+
+    private static Currency currency(String code, int errorCode, String errorInfo) {
+        try {
+            return Currency.getInstance(code);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequest(errorCode, errorInfo);
+        }
+    }
+
+    private static String failure(int code, String info) {
+        return "{\"success\":false,\"error\":{\"code\":%d,\"info\":\"%s\"}}".formatted(code, info);
+    }
+
+    /**
+     * Rates are derived from a stable per-currency value in US dollars, so cross rates stay consistent.
+     */
+    static BigDecimal rate(Currency fromCurrency, Currency toCurrency) {
+        return
+            dollarValue(fromCurrency)
+                .divide(dollarValue(toCurrency), 6, RoundingMode.HALF_UP)
+                .stripTrailingZeros();
+    }
+
+    private static BigDecimal dollarValue(Currency currency) {
+        return
+            currency.getCurrencyCode().equals("USD")
+                ? BigDecimal.ONE
+                : BigDecimal.valueOf(Math.floorMod(currency.getCurrencyCode().hashCode(), 2000) + 10, 3);
+    }
+
+    private static Map<String, String> queryParameters(HttpExchange exchange) {
+        var query = exchange.getRequestURI().getRawQuery();
+
+        if (query == null) {
+            return Map.of();
+        }
+
+        return
+            Arrays.stream(query.split("&"))
+                .map(parameter -> parameter.split("=", 2))
+                .collect(Collectors.toMap(
+                    parameter -> URLDecoder.decode(parameter[0], StandardCharsets.UTF_8),
+                    parameter -> parameter.length > 1 ? URLDecoder.decode(parameter[1], StandardCharsets.UTF_8) : "",
+                    (first, second) -> second
+                ));
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        send(exchange, status, "application/json", body);
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        var bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private static void sleep(Duration duration) {
+        if (duration.isZero()) {
+            return;
+        }
+
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Request the provider answers with a {@code success:false} payload.
+     */
+    private static class InvalidRequest extends RuntimeException {
+
+        private final int code;
+
+        InvalidRequest(int code, String info) {
+            super(info);
+            this.code = code;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ResponseBody {
+
+        String render(Map<String, String> query);
+    }
+
+    @FunctionalInterface
+    public interface LatencyDistribution {
+
+        Duration next();
+
+        static LatencyDistribution fixed(Duration latency) {
+            return () -> latency;
+        }
+
+        static LatencyDistribution uniform(Duration minimum, Duration maximum) {
+            return () -> Duration.ofNanos(ThreadLocalRandom.current().nextLong(minimum.toNanos(), maximum.toNanos() + 1));
+        }
+
+        /**
+         * Long-tailed latency around the given median; sigma of 0.5 puts p99 at roughly 3.2 times the median.
+         */
+        static LatencyDistribution logNormal(Duration median, double sigma) {
+            return () -> Duration.ofNanos((long) (median.toNanos() * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian())));
+        }
+
+        /**
+         * Parses {@code fixed:PT0.1S}, {@code uniform:PT0.05S:PT0.2S} or {@code log-normal:PT0.1S:0.5}.
+         */
+        static LatencyDistribution parse(String value) {
+            var parts = value.split(":");
+
+            return switch (parts[0]) {
+                case "fixed" -> fixed(Duration.parse(parts[1]));
+                case "uniform" -> uniform(Duration.parse(parts[1]), Duration.parse(parts[2]));
+                case "log-normal" -> logNormal(Duration.parse(parts[1]), Double.parseDouble(parts[2]));
+                default -> throw new IllegalArgumentException("Unknown latency distribution: " + value);
+            };
+        }
+    }
+}
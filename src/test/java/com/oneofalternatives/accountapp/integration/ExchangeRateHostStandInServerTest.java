@@ -0,0 +1,116 @@
+package com.oneofalternatives.accountapp.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oneofalternatives.accountapp.error.CurrencyExchangeServiceError;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Set;
+
+import static com.oneofalternatives.accountapp.util.Currencies.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExchangeRateHostStandInServerTest {
+
+    private ExchangeRateHostStandInServer server;
+    private ExchangeRateHostClient client;
+
+    @BeforeEach
+    void beforeEach() throws IOException {
+        server = new ExchangeRateHostStandInServer(0).start();
+
+        var settings =
+            new ExchangeRateHostIntegrationSettings(
+                server.rootUrl(),
+                "ACC-KEY-123",
+                Duration.ofSeconds(1),
+                Duration.ofSeconds(1),
+                "exchangeratehost"
+            );
+        var restTemplate =
+            new RestTemplateBuilder()
+                .interceptors(new ExchangeRateHostAuthInterceptor(settings.accessKey()))
+                .errorHandler(new NonOperationalResponseErrorHandler())
+                .build();
+
+        client = new ExchangeRateHostClient(restTemplate, settings, new ObjectMapper());
+    }
+
+    @AfterEach
+    void afterEach() {
+        server.close();
+    }
+
+    @Test
+    void shouldServeSupportedCurrenciesAndConsistentRates() {
+        assertThat(client.getSupportedCurrencies()).contains(EUR, USD, AUD, GBP, GEL);
+
+        var rates = client.getDirectRates(EUR, Set.of(USD, AUD));
+
+        assertThat(rates).containsOnlyKeys(USD, AUD);
+        assertThat(client.getDirectRate(EUR, USD)).isEqualByComparingTo(rates.get(USD));
+        assertThat(server.servedRequests()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldRejectRequestsOverQuota() {
+        server.setRequestQuota(1);
+
+        client.getDirectRate(EUR, USD);
+
+        assertThatThrownBy(() -> client.getDirectRate(EUR, USD))
+            .isInstanceOf(CurrencyExchangeServiceError.class)
+            .hasMessageContaining("Reason code: 104");
+    }
+
+    @Test
+    void shouldInjectErrors() {
+        server.setErrorRate(1);
+
+        assertThatThrownBy(() -> client.getDirectRate(EUR, USD))
+            .isInstanceOf(CurrencyExchangeServiceError.class)
+            .hasMessage("Currency exchange service responded with status 500 INTERNAL_SERVER_ERROR");
+    }
+
+    @Test
+    void shouldInjectUnsuccessfulPayloads() {
+        server.setFailureRate(1);
+
+        assertThatThrownBy(() -> client.getDirectRate(EUR, USD))
+            .isInstanceOf(CurrencyExchangeServiceError.class)
+            .hasMessageContaining("Reason code: 105");
+    }
+
+    @Test
+    void shouldAnswerUnknownCurrencyCodesWithFailurePayload() throws Exception {
+        var uri = URI.create(server.rootUrl() + "/live?source=EUR&currencies=XYZ&access_key=ACC-KEY-123");
+        var response =
+            HttpClient.newHttpClient().send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body())
+            .isEqualTo(
+                "{\"success\":false,\"error\":{\"code\":202,"
+                    + "\"info\":\"You have provided one or more invalid Currency Codes.\"}}"
+            );
+    }
+
+    @Test
+    void shouldDelayResponses() {
+        server.setLatency(ExchangeRateHostStandInServer.LatencyDistribution.fixed(Duration.ofMillis(200)));
+
+        var startedAt = System.nanoTime();
+        client.getDirectRate(EUR, USD);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - startedAt)).isGreaterThanOrEqualTo(Duration.ofMillis(200));
+    }
+}
@@ -0,0 +1,153 @@
+package com.oneofalternatives.accountapp.integration;
+
+import com.oneofalternatives.accountapp.error.CurrencyExchangeServiceError;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static com.oneofalternatives.accountapp.util.Currencies.EUR;
+import static com.oneofalternatives.accountapp.util.Currencies.USD;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HedgingCurrencyConversionClientTest {
+
+    @Mock
+    private CurrencyConversionClient primary;
+
+    @Mock
+    private CurrencyConversionClient secondary;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void afterEach() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void getDirectRate_shouldUseSecondaryWhenPrimaryIsSlowAndCancelPrimary() throws Exception {
+        var primaryInterrupted = new CountDownLatch(1);
+        when(primary.getDirectRate(EUR, USD))
+            .thenAnswer(invocation -> {
+                try {
+                    Thread.sleep(Duration.ofSeconds(10).toMillis());
+                } catch (InterruptedException e) {
+                    primaryInterrupted.countDown();
+                }
+                return BigDecimal.ONE;
+            });
+        when(secondary.getDirectRate(EUR, USD))
+            .thenReturn(BigDecimal.valueOf(1.09));
+
+        var result = client(true).getDirectRate(EUR, USD);
+
+        assertThat(result).isEqualTo(BigDecimal.valueOf(1.09));
+        assertThat(primaryInterrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(meterRegistry.get("currency.converter.requests.hedged").counter().count()).isEqualTo(1);
+        assertThat(
+            meterRegistry.get("currency.converter.provider.latency")
+                .tag("provider", "secondary")
+                .tag("outcome", "success")
+                .timer()
+                .count()
+        ).isEqualTo(1);
+    }
+
+    @Test
+    void getDirectRate_shouldNotCallSecondaryWhenPrimaryIsFast() {
+        when(primary.getDirectRate(EUR, USD))
+            .thenReturn(BigDecimal.valueOf(1.09));
+
+        var result = client(true).getDirectRate(EUR, USD);
+
+        assertThat(result).isEqualTo(BigDecimal.valueOf(1.09));
+        verifyNoInteractions(secondary);
+    }
+
+    @Test
+    void getDirectRate_shouldFailOverWhenPrimaryFailsAndHedgingIsDisabled() {
+        when(primary.getDirectRate(EUR, USD))
+            .thenThrow(new CurrencyExchangeServiceError("Primary is down"));
+        when(secondary.getDirectRate(EUR, USD))
+            .thenReturn(BigDecimal.valueOf(1.09));
+
+        var result = client(false).getDirectRate(EUR, USD);
+
+        assertThat(result).isEqualTo(BigDecimal.valueOf(1.09));
+        assertThat(meterRegistry.get("currency.converter.requests.failed.over").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void getDirectRate_shouldThrowLastErrorWhenAllProvidersFail() {
+        when(primary.getDirectRate(EUR, USD))
+            .thenThrow(new CurrencyExchangeServiceError("Primary is down"));
+        when(secondary.getDirectRate(EUR, USD))
+            .thenThrow(new CurrencyExchangeServiceError("Secondary is down"));
+
+        assertThatThrownBy(() -> client(true).getDirectRate(EUR, USD))
+            .isInstanceOf(CurrencyExchangeServiceError.class)
+            .hasMessage("Secondary is down");
+    }
+
+    @Test
+    void getDirectRate_shouldRethrowError_whenProviderThrowsIt() {
+        when(primary.getDirectRate(EUR, USD))
+            .thenThrow(new AssertionError("Primary broke"));
+
+        assertThatThrownBy(() -> client(false).getDirectRate(EUR, USD))
+            .isInstanceOf(AssertionError.class)
+            .hasMessage("Primary broke");
+        verifyNoInteractions(secondary);
+    }
+
+    @Test
+    void getDirectRate_shouldFail_whenExecutorRejectsAttempts() {
+        executor.shutdown();
+
+        assertThatThrownBy(() -> client(true).getDirectRate(EUR, USD))
+            .isInstanceOf(CurrencyExchangeServiceError.class)
+            .hasMessage("Too many concurrent requests to currency exchange service");
+        verifyNoInteractions(primary, secondary);
+    }
+
+    private HedgingCurrencyConversionClient client(boolean hedgingEnabled) {
+        return
+            new HedgingCurrencyConversionClient(
+                List.of(
+                    new HedgingCurrencyConversionClient.Provider("primary", primary),
+                    new HedgingCurrencyConversionClient.Provider("secondary", secondary)
+                ),
+                new CurrencyConversionHedgingSettings(
+                    hedgingEnabled,
+                    0.95,
+                    Duration.ofMillis(50),
+                    Duration.ofSeconds(1),
+                    2
+                ),
+                executor,
+                meterRegistry
+            );
+    }
+}
@@ -0,0 +1,94 @@
+package com.oneofalternatives.accountapp.integration;
+
+import com.oneofalternatives.accountapp.util.MutableClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@JdbcTest
+class ProviderQuotaTrackerTest {
+
+    private static final String PROVIDER = "exchangeratehost";
+    private static final ProviderQuotaSettings SETTINGS =
+        new ProviderQuotaSettings(
+            true, 100, 0.2, Duration.ofHours(24), Duration.ofHours(12), Duration.ofMinutes(1), Set.of(PROVIDER));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private MutableClock clock;
+    private SimpleMeterRegistry meterRegistry;
+
+    @Autowired
+    ProviderQuotaTrackerTest(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        clock = new MutableClock(Instant.parse("2024-01-16T00:00:00Z"));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void shouldKeepCountingAfterRestart() {
+        var tracker = new ProviderQuotaTracker(jdbcTemplate, SETTINGS, meterRegistry, clock);
+        recordCalls(tracker, 10);
+        tracker.close();
+
+        var restartedTracker = new ProviderQuotaTracker(jdbcTemplate, SETTINGS, new SimpleMeterRegistry(), clock);
+
+        assertThat(restartedTracker.remainingCalls(PROVIDER)).isEqualTo(90);
+    }
+
+    @Test
+    void shouldProjectExhaustionFromCallRateOfCurrentMonth() {
+        var tracker = new ProviderQuotaTracker(jdbcTemplate, SETTINGS, meterRegistry, clock);
+        recordCalls(tracker, 30);
+
+        // 30 calls in 15 days leave 70 calls for 35 more days
+        assertThat(tracker.projectedTimeUntilExhaustion(PROVIDER)).isEqualTo(Duration.ofDays(35));
+        assertThat(meterRegistry.get("currency.converter.quota.remaining").tag("provider", PROVIDER).gauge().value())
+            .isEqualTo(70);
+    }
+
+    @Test
+    void shouldNotifyListenersWhenBudgetRunsLow() {
+        var tracker = new ProviderQuotaTracker(jdbcTemplate, SETTINGS, meterRegistry, clock);
+        var notifications = new ArrayList<Boolean>();
+        tracker.addBudgetListener(notifications::add);
+
+        recordCalls(tracker, 40);
+        tracker.flush();
+        recordCalls(tracker, 20);
+        tracker.flush();
+
+        assertThat(notifications).containsExactly(true);
+        assertThat(tracker.isBudgetLow()).isTrue();
+    }
+
+    @Test
+    void shouldStartCountingAgainInNewMonth() {
+        var tracker = new ProviderQuotaTracker(jdbcTemplate, SETTINGS, meterRegistry, clock);
+        recordCalls(tracker, 50);
+
+        clock.advance(Duration.ofDays(16));
+        tracker.recordCall(PROVIDER);
+
+        assertThat(tracker.remainingCalls(PROVIDER)).isEqualTo(99);
+    }
+
+    private static void recordCalls(ProviderQuotaTracker tracker, int calls) {
+        IntStream.range(0, calls).forEach(call -> tracker.recordCall(PROVIDER));
+    }
+}
@@ -0,0 +1,43 @@
+package com.oneofalternatives.accountapp.integration;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static com.oneofalternatives.accountapp.util.Currencies.*;
+import static com.oneofalternatives.accountapp.util.MoneyConstants.ROUNDING_MODE;
+import static com.oneofalternatives.accountapp.util.MoneyConstants.SCALE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateMatrixTest {
+
+    private final RateMatrix matrix =
+        RateMatrix.of(
+            Map.of(
+                CurrencyPair.of(EUR, USD), new BigDecimal("0.907"),
+                CurrencyPair.of(USD, AUD), new BigDecimal("1.50")
+            )
+        );
+
+    @Test
+    void shouldReturnRateAndPrecomputedReciprocal() {
+        assertThat(matrix.rate(EUR, USD)).isEqualTo(new BigDecimal("0.907"));
+        assertThat(matrix.reciprocal(EUR, USD).setScale(SCALE, ROUNDING_MODE)).isEqualTo(new BigDecimal("1.1025358324"));
+        assertThat(matrix.currencies()).containsExactlyInAnyOrder(EUR, USD, AUD);
+    }
+
+    @Test
+    void shouldReturnNullForUnknownPairs() {
+        assertThat(matrix.rate(USD, EUR)).isNull();
+        assertThat(matrix.reciprocal(AUD, USD)).isNull();
+        assertThat(matrix.rate(GBP, USD)).isNull();
+    }
+
+    @Test
+    void shouldNotLetCurrenciesBeModified() {
+        assertThatThrownBy(() -> matrix.currencies().remove(EUR)).isInstanceOf(UnsupportedOperationException.class);
+        assertThat(matrix.rate(EUR, USD)).isEqualTo(new BigDecimal("0.907"));
+    }
+}
@@ -0,0 +1,119 @@
+package com.oneofalternatives.accountapp.integration;
+
+import com.oneofalternatives.accountapp.error.CurrencyExchangeServiceError;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.IntStream;
+
+import static com.oneofalternatives.accountapp.util.Currencies.EUR;
+import static com.oneofalternatives.accountapp.util.Currencies.USD;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SingleFlightCurrencyConversionClientTest {
+
+    private static final int CALLERS = 8;
+
+    @Mock
+    private CurrencyConversionClient delegate;
+
+    private final CountDownLatch providerResponds = new CountDownLatch(1);
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlightCurrencyConversionClient client;
+
+    @BeforeEach
+    void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+        client = new SingleFlightCurrencyConversionClient(delegate, meterRegistry);
+    }
+
+    @AfterEach
+    void afterEach() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void getDirectRate_shouldShareOneRequestBetweenConcurrentCallers() throws Exception {
+        when(delegate.getDirectRate(EUR, USD))
+            .thenAnswer(blockUntilReleased(BigDecimal.valueOf(1.09)));
+
+        var results = callConcurrently();
+        awaitCoalescedRequests(CALLERS - 1);
+        providerResponds.countDown();
+
+        for (var result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(BigDecimal.valueOf(1.09));
+        }
+
+        verify(delegate, times(1)).getDirectRate(EUR, USD);
+        assertThat(meterRegistry.get("currency.converter.requests.executed").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void getDirectRate_shouldShareErrorBetweenConcurrentCallers() throws Exception {
+        when(delegate.getDirectRate(EUR, USD))
+            .thenAnswer(invocation -> {
+                providerResponds.await();
+                throw new CurrencyExchangeServiceError("Error description");
+            });
+
+        var results = callConcurrently();
+        awaitCoalescedRequests(CALLERS - 1);
+        providerResponds.countDown();
+
+        for (var result : results) {
+            assertThat(result)
+                .failsWithin(5, TimeUnit.SECONDS)
+                .withThrowableOfType(ExecutionException.class)
+                .havingCause()
+                .isInstanceOf(CurrencyExchangeServiceError.class)
+                .withMessage("Error description");
+        }
+
+        verify(delegate, times(1)).getDirectRate(EUR, USD);
+    }
+
+    @Test
+    void getDirectRate_shouldCallDelegateAgain_whenPreviousRequestCompleted() {
+        when(delegate.getDirectRate(EUR, USD))
+            .thenReturn(BigDecimal.valueOf(1.09), BigDecimal.valueOf(1.10));
+
+        assertThat(client.getDirectRate(EUR, USD)).isEqualTo(BigDecimal.valueOf(1.09));
+        assertThat(client.getDirectRate(EUR, USD)).isEqualTo(BigDecimal.valueOf(1.10));
+    }
+
+    private List<Future<BigDecimal>> callConcurrently() {
+        return
+            IntStream.range(0, CALLERS)
+                .mapToObj(caller -> executor.submit(() -> client.getDirectRate(EUR, USD)))
+                .toList();
+    }
+
+    private Answer<BigDecimal> blockUntilReleased(BigDecimal rate) {
+        return invocation -> {
+            providerResponds.await();
+            return rate;
+        };
+    }
+
+    private void awaitCoalescedRequests(int expectedCount) throws InterruptedException {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+        while (meterRegistry.get("currency.converter.requests.coalesced").counter().count() < expectedCount) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.oneofalternatives.accountapp.integration;
+
+import com.oneofalternatives.accountapp.error.CurrencyExchangeServiceError;
+import com.oneofalternatives.accountapp.util.MutableClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+
+import static com.oneofalternatives.accountapp.util.Currencies.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SupportedCurrencyRegistryTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-14T12:00:00Z");
+
+    @Mock
+    private CurrencyConversionClient delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MutableClock clock;
+    private SupportedCurrencyRegistry registry;
+
+    @BeforeEach
+    void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock(NOW);
+        registry = new SupportedCurrencyRegistry(delegate, meterRegistry, clock);
+    }
+
+    @Test
+    void getSupportedCurrencies_shouldLoadOnceAndServeFromMemory() {
+        when(delegate.getSupportedCurrencies())
+            .thenReturn(Set.of(EUR, USD, AUD));
+
+        assertThat(registry.getSupportedCurrencies()).containsExactlyInAnyOrder(EUR, USD, AUD);
+        assertThat(registry.getSupportedCurrencies()).containsExactlyInAnyOrder(EUR, USD, AUD);
+
+        verify(delegate, times(1)).getSupportedCurrencies();
+    }
+
+    @Test
+    void scheduledRefresh_shouldKeepPreviousCurrencies_whenProviderFails() {
+        when(delegate.getSupportedCurrencies())
+            .thenReturn(Set.of(EUR, USD))
+            .thenThrow(new CurrencyExchangeServiceError("Error description"));
+
+        registry.scheduledRefresh();
+        clock.advance(Duration.ofMinutes(30));
+        registry.scheduledRefresh();
+
+        assertThat(registry.getSupportedCurrencies()).containsExactlyInAnyOrder(EUR, USD);
+        assertThat(meterRegistry.get("currency.converter.supported.currencies.refresh.failures").counter().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get("currency.converter.supported.currencies.age").gauge().value())
+            .isEqualTo(1800);
+    }
+
+    @Test
+    void getSupportedCurrencies_shouldPassError_whenNothingLoadedYet() {
+        when(delegate.getSupportedCurrencies())
+            .thenThrow(new CurrencyExchangeServiceError("Error description"));
+
+        assertThatThrownBy(registry::getSupportedCurrencies)
+            .isInstanceOf(CurrencyExchangeServiceError.class)
+            .hasMessage("Error description");
+    }
+
+    @Test
+    void getDirectRate_shouldDelegate() {
+        registry.getDirectRate(EUR, USD);
+
+        verify(delegate).getDirectRate(EUR, USD);
+    }
+}
@@ -2,6 +2,8 @@ package com.oneofalternatives.accountapp.integrationtest;
 
 import com.oneofalternatives.accountapp.api.AccountProjection;
 import com.oneofalternatives.accountapp.api.CreateAccountProjection;
+import com.oneofalternatives.accountapp.api.FundTransferRequestProjection;
+import com.oneofalternatives.accountapp.api.FundTransferResultProjection;
 import com.oneofalternatives.accountapp.api.PageProjection;
 import com.oneofalternatives.accountapp.api.TransactionHistoryRecordProjection;
 import com.oneofalternatives.accountapp.model.Account;
@@ -114,6 +116,17 @@ public class TestAccountAppRestClient {
             );
     }
 
+    public List<FundTransferResultProjection> postFundTransferBatchSuccess(
+        List<FundTransferRequestProjection> transfers
+    ) {
+        var url = URI_BUILDER_FACTORY.uriString("/transaction/fund-transfer/batch").build();
+
+        return
+            assertOkAndGetBody(
+                testRestTemplate.exchange(url, POST, new HttpEntity<>(transfers), new ParameterizedTypeReference<>() { })
+            );
+    }
+
     private <T> ResponseEntity<T> postFundTransfer(
         int senderAccountId,
         int receiverAccountId,
@@ -1,6 +1,9 @@
 package com.oneofalternatives.accountapp.integrationtest;
 
 import com.oneofalternatives.accountapp.api.AccountProjection;
+import com.oneofalternatives.accountapp.api.FundTransferRequestProjection;
+import com.oneofalternatives.accountapp.api.FundTransferResultProjection;
+import com.oneofalternatives.accountapp.api.FundTransferResultProjection.Status;
 import com.oneofalternatives.accountapp.api.TransactionHistoryRecordProjection;
 import com.oneofalternatives.accountapp.api.TransactionHistoryRecordProjection.AccountBaseInfoProjection;
 import com.oneofalternatives.accountapp.api.TransactionHistoryRecordProjection.Direction;
@@ -9,28 +12,42 @@ import com.oneofalternatives.accountapp.integration.CurrencyConversionClient;
 import com.oneofalternatives.accountapp.integration.CurrencyConverterMockSettings;
 import com.oneofalternatives.accountapp.integrationtest.TestAccountAppRestClient.Paging;
 import com.oneofalternatives.accountapp.model.Account;
+import com.oneofalternatives.accountapp.repository.AccountRepository;
 import com.oneofalternatives.accountapp.util.TypeUtils;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
 import org.mockito.stubbing.Answer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.Currency;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.oneofalternatives.accountapp.util.CreateAccountProjectionFactory.createAccountProjection;
 import static com.oneofalternatives.accountapp.util.Currencies.*;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.groups.Tuple.tuple;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
 
@@ -40,12 +57,18 @@ import static org.springframework.boot.test.context.SpringBootTest.WebEnvironmen
 @TestPropertySource(locations = "classpath:application-integrationtest.properties")
 class TransferFundsIntegrationTest {
 
-    @MockBean
+    @MockBean(answer = Answers.CALLS_REAL_METHODS)
     private CurrencyConversionClient currencyConversionClientMock;
     @Autowired
     private CurrencyConverterMockSettings currencyConverterMockSettings;
     @Autowired
     private TestAccountAppRestClient rest;
+    @SpyBean
+    private AccountRepository accountRepositorySpy;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
 
     @Test
     void shouldReturnEmptyTransactionHistoryWhenAccountDoesNotExist() {
@@ -133,6 +156,10 @@ class TransferFundsIntegrationTest {
         var usdAccountTransactionHistoryPage = rest.getTransactionHistoryFor(usdAccount.getId(), Paging.of(0, 10));
         var audAccountTransactionHistoryPage = rest.getTransactionHistoryFor(audAccount.getId(), Paging.of(0, 10));
 
+        assertThat(eurAccountTransactionHistoryPage.totalElements()).isEqualTo(2);
+        assertThat(usdAccountTransactionHistoryPage.totalElements()).isEqualTo(3);
+        assertThat(audAccountTransactionHistoryPage.totalElements()).isEqualTo(1);
+
         // @formatter:off
         Assertions.assertThat(eurAccountTransactionHistoryPage.content())
             .containsExactly(
@@ -232,6 +259,167 @@ class TransferFundsIntegrationTest {
             );
     }
 
+    @Test
+    void shouldNotHoldDatabaseConnectionWhileWaitingForExchangeRate() {
+        var providerDelay = Duration.ofMillis(300);
+
+        when(currencyConversionClientMock.getSupportedCurrencies())
+            .thenReturn(currencyConverterMockSettings.supportedCurrencies());
+        when(currencyConversionClientMock.getDirectRate(EUR, USD))
+            .thenAnswer((Answer<BigDecimal>) invocation -> {
+                Thread.sleep(providerDelay.toMillis());
+                return currencyConverterMockSettings.exchangeRates().get("EURUSD");
+            });
+
+        var clientId = getMaxClientId() + 1;
+        var eurAccount = rest.putAccountSuccess(createAccountProjection(clientId, "ACC-0001", 1000.00, EUR));
+        var usdAccount = rest.putAccountSuccess(createAccountProjection(clientId, "ACC-0002", 1000.00, USD));
+
+        var connectionUsage = meterRegistry.get("hikaricp.connections.usage").timer();
+        var heldBefore = connectionUsage.totalTime(TimeUnit.MILLISECONDS);
+
+        rest.postFundTransferSuccess(eurAccount.getId(), usdAccount.getId(), 30.00);
+
+        var held = connectionUsage.totalTime(TimeUnit.MILLISECONDS) - heldBefore;
+
+        assertThat(held)
+            .as("connections held for %.1f ms in total during a transfer waiting %s for its rate", held, providerDelay)
+            .isLessThan(providerDelay.toMillis());
+    }
+
+    @Test
+    void shouldRetryFundTransferWhenSenderAccountIsUpdatedConcurrently() {
+        var client = getMaxClientId() + 1;
+        var sender = rest.putAccountSuccess(createAccountProjection(client, "ACC-0001", 100.00, EUR));
+        var receiver = rest.putAccountSuccess(createAccountProjection(client, "ACC-0002", 0.00, EUR));
+        var depositPending = new AtomicBoolean(true);
+
+        doAnswer(invocation -> {
+            if (depositPending.getAndSet(false)) {
+                // committed on another connection after the ledger read the sender, before it debits it
+                CompletableFuture
+                    .runAsync(() ->
+                        jdbcTemplate.update(
+                            "UPDATE account SET balance = balance + 5, version = version + 1 WHERE id = ?",
+                            sender.getId()
+                        )
+                    )
+                    .join();
+            }
+
+            return mockingDetails(accountRepositorySpy).getMockCreationSettings().getDefaultAnswer().answer(invocation);
+        })
+            .when(accountRepositorySpy).debit(any(), any(), any(), any());
+
+        var conflicts = meterRegistry.get("account.transfer.conflicts").counter();
+        var conflictsBefore = conflicts.count();
+
+        rest.postFundTransferSuccess(sender.getId(), receiver.getId(), 30.00);
+
+        assertThat(conflicts.count() - conflictsBefore).isEqualTo(1);
+        Assertions.assertThat(rest.getAccountsFor(client))
+            .extracting(AccountProjection::id, AccountProjection::balance)
+            .containsExactlyInAnyOrder(
+                tuple(sender.getId(), TypeUtils.scaledBigDecimal(75.00)),
+                tuple(receiver.getId(), TypeUtils.scaledBigDecimal(30.00))
+            );
+    }
+
+    @Test
+    void shouldRegisterFundTransfersInBatch() {
+        var client = getMaxClientId() + 1;
+
+        var firstAccount = rest.putAccountSuccess(createAccountProjection(client, "ACC-0001", 100.00, EUR));
+        var secondAccount = rest.putAccountSuccess(createAccountProjection(client, "ACC-0002", 0.00, EUR));
+        var nonExistingAccountId = getMaxAccountId() + 1;
+
+        var results =
+            rest.postFundTransferBatchSuccess(
+                List.of(
+                    new FundTransferRequestProjection(firstAccount.getId(), secondAccount.getId(), BigDecimal.valueOf(60)),
+                    new FundTransferRequestProjection(firstAccount.getId(), secondAccount.getId(), BigDecimal.valueOf(50)),
+                    new FundTransferRequestProjection(secondAccount.getId(), firstAccount.getId(), BigDecimal.valueOf(10)),
+                    new FundTransferRequestProjection(firstAccount.getId(), nonExistingAccountId, BigDecimal.valueOf(1))
+                )
+            );
+
+        assertThat(results)
+            .extracting(
+                FundTransferResultProjection::index,
+                FundTransferResultProjection::status,
+                FundTransferResultProjection::error
+            )
+            .containsExactly(
+                tuple(0, Status.SUCCEEDED, null),
+                tuple(1, Status.FAILED, "Source account has insufficient balance"),
+                tuple(2, Status.SUCCEEDED, null),
+                tuple(3, Status.FAILED, "Accounts with these IDs do not exist: [" + nonExistingAccountId + "]")
+            );
+        assertThat(results.get(0).transactionId()).isNotNull();
+        assertThat(results.get(2).transactionId()).isGreaterThan(results.get(0).transactionId());
+
+        Assertions.assertThat(rest.getAccountsFor(client))
+            .extracting(AccountProjection::id, AccountProjection::balance)
+            .containsExactlyInAnyOrder(
+                tuple(firstAccount.getId(), TypeUtils.scaledBigDecimal(50.00)),
+                tuple(secondAccount.getId(), TypeUtils.scaledBigDecimal(50.00))
+            );
+        assertThat(rest.getTransactionHistoryFor(firstAccount.getId(), Paging.of(0, 10)).totalElements()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldServeCachedLatestTransactionsSameAsDatabase() {
+        var client = getMaxClientId() + 1;
+
+        var firstAccount = rest.putAccountSuccess(createAccountProjection(client, "ACC-0001", 100.00, EUR));
+        var secondAccount = rest.putAccountSuccess(createAccountProjection(client, "ACC-0002", 100.00, EUR));
+
+        assertThat(rest.getTransactionHistoryFor(firstAccount.getId(), Paging.of(0, 10)).content()).isEmpty();
+
+        rest.postFundTransferSuccess(firstAccount.getId(), secondAccount.getId(), 10.00);
+        rest.postFundTransferBatchSuccess(
+            List.of(
+                new FundTransferRequestProjection(secondAccount.getId(), firstAccount.getId(), BigDecimal.valueOf(2.5)),
+                new FundTransferRequestProjection(firstAccount.getId(), secondAccount.getId(), BigDecimal.valueOf(1))
+            )
+        );
+
+        var cachedPage = rest.getTransactionHistoryFor(firstAccount.getId(), Paging.of(0, 10));
+        // more records than kept per account, read from the database
+        var databasePage = rest.getTransactionHistoryFor(firstAccount.getId(), Paging.of(0, 100));
+
+        assertThat(cachedPage.content())
+            .hasSize(3)
+            .containsExactlyElementsOf(databasePage.content());
+    }
+
+    @Test
+    void shouldConvertEachCurrencyPairOnceInBatch() {
+        when(currencyConversionClientMock.getSupportedCurrencies())
+            .thenReturn(currencyConverterMockSettings.supportedCurrencies());
+        when(currencyConversionClientMock.getDirectRate(EUR, USD))
+            .thenReturn(currencyConverterMockSettings.exchangeRates().get("EURUSD"));
+
+        var client = getMaxClientId() + 1;
+
+        var eurAccount = rest.putAccountSuccess(createAccountProjection(client, "ACC-0001", 1000.00, EUR));
+        var usdAccount = rest.putAccountSuccess(createAccountProjection(client, "ACC-0002", 1000.00, USD));
+
+        var results =
+            rest.postFundTransferBatchSuccess(
+                List.of(
+                    new FundTransferRequestProjection(eurAccount.getId(), usdAccount.getId(), BigDecimal.valueOf(30)),
+                    new FundTransferRequestProjection(eurAccount.getId(), usdAccount.getId(), BigDecimal.valueOf(70))
+                )
+            );
+
+        assertThat(results)
+            .extracting(FundTransferResultProjection::status)
+            .containsExactly(Status.SUCCEEDED, Status.SUCCEEDED);
+
+        verify(currencyConversionClientMock, times(1)).getReciprocalRate(EUR, USD);
+    }
+
     private Integer getMaxAccountId() {
         return
             rest
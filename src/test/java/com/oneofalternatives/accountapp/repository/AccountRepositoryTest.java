@@ -0,0 +1,102 @@
+package com.oneofalternatives.accountapp.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.math.BigDecimal;
+
+import static com.oneofalternatives.accountapp.util.AccountTestFactory.accountWith;
+import static com.oneofalternatives.accountapp.util.Currencies.EUR;
+import static com.oneofalternatives.accountapp.util.Currencies.USD;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+class AccountRepositoryTest {
+
+    private final AccountRepository accountRepository;
+
+    @Autowired
+    AccountRepositoryTest(AccountRepository accountRepository) {
+        this.accountRepository = accountRepository;
+    }
+
+    @Test
+    void debit_shouldSubtractAmount_whenBalanceIsSufficient() {
+        var account = accountRepository.saveAndFlush(accountWith(1, "ACC-0101", 10.00, EUR));
+
+        var updated = accountRepository.debit(account.getId(), EUR, new BigDecimal("10.00"), account.getVersion());
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(accountRepository.findById(account.getId()))
+            .hasValueSatisfying(it -> assertThat(it.getBalance()).isEqualByComparingTo(BigDecimal.ZERO));
+    }
+
+    @Test
+    void debit_shouldNotUpdateAccount_whenBalanceIsInsufficient() {
+        var account = accountRepository.saveAndFlush(accountWith(1, "ACC-0101", 10.00, EUR));
+
+        var updated =
+            accountRepository.debit(account.getId(), EUR, new BigDecimal("10.0000000001"), account.getVersion());
+
+        assertThat(updated).isZero();
+        assertThat(accountRepository.findById(account.getId()))
+            .hasValueSatisfying(it -> assertThat(it.getBalance()).isEqualByComparingTo("10.00"));
+    }
+
+    @Test
+    void creditAndDebit_shouldNotUpdateAccount_whenCurrencyDiffers() {
+        var account = accountRepository.saveAndFlush(accountWith(1, "ACC-0101", 10.00, EUR));
+
+        assertThat(accountRepository.debit(account.getId(), USD, BigDecimal.ONE, account.getVersion())).isZero();
+        assertThat(accountRepository.credit(account.getId(), USD, BigDecimal.ONE, account.getVersion())).isZero();
+    }
+
+    @Test
+    void credit_shouldAddAmount() {
+        var account = accountRepository.saveAndFlush(accountWith(1, "ACC-0101", 10.00, EUR));
+
+        var updated = accountRepository.credit(account.getId(), EUR, new BigDecimal("2.50"), account.getVersion());
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(accountRepository.findById(account.getId()))
+            .hasValueSatisfying(it -> assertThat(it.getBalance()).isEqualByComparingTo("12.50"));
+    }
+
+    @Test
+    void debitAndCredit_shouldCountTransactions() {
+        var account = accountRepository.saveAndFlush(accountWith(1, "ACC-0101", 10.00, EUR));
+
+        accountRepository.debit(account.getId(), EUR, BigDecimal.ONE, 0L);
+        accountRepository.credit(account.getId(), EUR, BigDecimal.ONE, 1L);
+        accountRepository.debit(account.getId(), EUR, BigDecimal.valueOf(100), 2L);
+
+        assertThat(accountRepository.findTransactionCountById(account.getId())).contains(2L);
+    }
+
+    @Test
+    void debitAndCredit_shouldNotUpdateAccount_whenItWasUpdatedSinceVersionWasRead() {
+        var account = accountRepository.saveAndFlush(accountWith(1, "ACC-0101", 10.00, EUR));
+        var readVersion = account.getVersion();
+
+        accountRepository.credit(account.getId(), EUR, BigDecimal.ONE, readVersion);
+
+        assertThat(accountRepository.debit(account.getId(), EUR, BigDecimal.ONE, readVersion)).isZero();
+        assertThat(accountRepository.credit(account.getId(), EUR, BigDecimal.ONE, readVersion)).isZero();
+        assertThat(accountRepository.findById(account.getId()))
+            .hasValueSatisfying(it -> assertThat(it.getBalance()).isEqualByComparingTo("11.00"));
+    }
+
+    @Test
+    void debit_shouldPreventSavingAccountLoadedBeforeIt() {
+        var staleAccount = accountRepository.saveAndFlush(accountWith(1, "ACC-0101", 10.00, EUR));
+
+        accountRepository.debit(staleAccount.getId(), EUR, new BigDecimal("4.00"), staleAccount.getVersion());
+        staleAccount.setNumber("ACC-0102");
+
+        assertThatThrownBy(() -> accountRepository.saveAndFlush(staleAccount))
+            .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+    }
+}
@@ -0,0 +1,85 @@
+package com.oneofalternatives.accountapp.repository;
+
+import com.oneofalternatives.accountapp.integration.FxRateSnapshotSettings;
+import com.oneofalternatives.accountapp.integration.FxRateSnapshotWriter;
+import com.oneofalternatives.accountapp.model.FxRateSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Currency;
+import java.util.Map;
+
+import static com.oneofalternatives.accountapp.util.Currencies.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+class FxRateSnapshotRepositoryTest {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FxRateSnapshotRepository snapshotRepository;
+
+    @Autowired
+    FxRateSnapshotRepositoryTest(
+        JdbcTemplate jdbcTemplate,
+        FxRateSnapshotRepository snapshotRepository
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.snapshotRepository = snapshotRepository;
+    }
+
+    @Test
+    void findLatestPerPairFetchedAfter_shouldReturnRatesStoredByWriter() {
+        var writer =
+            new FxRateSnapshotWriter(
+                jdbcTemplate,
+                new FxRateSnapshotSettings(true, Duration.ofSeconds(1), 2, 100),
+                new SimpleMeterRegistry()
+            );
+
+        writer.record("exchangeratehost", EUR, Map.of(USD, BigDecimal.valueOf(1.08), AUD, BigDecimal.valueOf(1.62)));
+        writer.record("exchangeratehost", GBP, Map.of(USD, BigDecimal.valueOf(1.27)));
+        writer.flush();
+
+        var snapshots =
+            snapshotRepository.findLatestPerPairFetchedAfter(LocalDateTime.now(ZoneOffset.UTC).minusMinutes(1));
+
+        assertThat(snapshots)
+            .extracting(FxRateSnapshot::getFromCurrency, FxRateSnapshot::getToCurrency, FxRateSnapshot::getProvider)
+            .containsExactlyInAnyOrder(
+                tuple(EUR, USD, "exchangeratehost"),
+                tuple(EUR, AUD, "exchangeratehost"),
+                tuple(GBP, USD, "exchangeratehost")
+            );
+    }
+
+    @Test
+    void findLatestPerPairFetchedAfter_shouldReturnOnlyLatestRatePerPair() {
+        insert(EUR, USD, "1.05", "2024-01-14T10:00");
+        insert(EUR, USD, "1.08", "2024-01-14T11:00");
+        insert(EUR, AUD, "1.60", "2024-01-13T11:00");
+
+        var snapshots = snapshotRepository.findLatestPerPairFetchedAfter(LocalDateTime.parse("2024-01-14T00:00"));
+
+        assertThat(snapshots)
+            .extracting(FxRateSnapshot::getFromCurrency, FxRateSnapshot::getToCurrency, FxRateSnapshot::getRate)
+            .containsExactly(tuple(EUR, USD, new BigDecimal("1.0800000000")));
+    }
+
+    private void insert(Currency fromCurrency, Currency toCurrency, String rate, String fetchedAt) {
+        var snapshot = new FxRateSnapshot();
+        snapshot.setFromCurrency(fromCurrency);
+        snapshot.setToCurrency(toCurrency);
+        snapshot.setRate(new BigDecimal(rate));
+        snapshot.setFetchedAt(LocalDateTime.parse(fetchedAt));
+        snapshot.setProvider("exchangeratehost");
+        snapshotRepository.saveAndFlush(snapshot);
+    }
+}
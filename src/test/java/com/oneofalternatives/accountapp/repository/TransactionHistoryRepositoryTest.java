@@ -0,0 +1,203 @@
+package com.oneofalternatives.accountapp.repository;
+
+import com.oneofalternatives.accountapp.api.TransactionHistoryRecordProjection;
+import com.oneofalternatives.accountapp.model.Account;
+import com.oneofalternatives.accountapp.model.Transaction;
+import com.oneofalternatives.accountapp.util.TransactionTestFactory;
+import com.oneofalternatives.accountapp.util.TypeUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static com.oneofalternatives.accountapp.util.AccountTestFactory.accountWith;
+import static com.oneofalternatives.accountapp.util.Currencies.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class TransactionHistoryRepositoryTest {
+
+    private final Account eurAccount = accountWith(1, "ACC-0001", 100.00, EUR);
+    private final Account usdAccount = accountWith(1, "ACC-0002", 100.00, USD);
+    private final Account audAccount = accountWith(2, "ACC-0003", 100.00, AUD);
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionHistoryRepository transactionHistoryRepository;
+
+    @Autowired
+    TransactionHistoryRepositoryTest(
+        AccountRepository accountRepository,
+        TransactionRepository transactionRepository,
+        NamedParameterJdbcTemplate jdbcTemplate
+    ) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.transactionHistoryRepository = new TransactionHistoryRepository(jdbcTemplate);
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        accountRepository.saveAllAndFlush(List.of(eurAccount, usdAccount, audAccount));
+    }
+
+    @Test
+    void findPage_shouldMapDirectionPeerAccountAmountAndCurrencyFromAccountPointOfView() {
+        var transactions =
+            save(
+                TransactionTestFactory.transactionWith(null, eurAccount, usdAccount, 25.00, 35.00, "2023-11-11T11:11"),
+                TransactionTestFactory.transactionWith(null, usdAccount, eurAccount, 77.00, 88.00, "2023-10-10T10:10"),
+                TransactionTestFactory.transactionWith(null, audAccount, eurAccount, 10.00, 20.00, "2023-09-09T09:09")
+            );
+
+        var records = transactionHistoryRepository.findPage(eurAccount.getId(), 0, 10);
+
+        // @formatter:off
+        assertThat(records)
+            .containsExactly(
+                TransactionHistoryRecordProjection.buildWith($ -> {
+                    $.transactionId =   transactions.get(0).getId();
+                    $.direction =       TransactionHistoryRecordProjection.Direction.OUTBOUND;
+                    $.peerAccount =     TransactionHistoryRecordProjection.AccountBaseInfoProjection.buildWith($$ -> {
+                                            $$.id = usdAccount.getId();
+                                            $$.number = "ACC-0002";
+                                        });
+                    $.amount =          TypeUtils.scaledBigDecimal(25.00);
+                    $.currency =        EUR;
+                    $.transactionDate = LocalDateTime.parse("2023-11-11T11:11");
+                }),
+                TransactionHistoryRecordProjection.buildWith($ -> {
+                    $.transactionId =   transactions.get(1).getId();
+                    $.direction =       TransactionHistoryRecordProjection.Direction.INBOUND;
+                    $.peerAccount =     TransactionHistoryRecordProjection.AccountBaseInfoProjection.buildWith($$ -> {
+                                            $$.id = usdAccount.getId();
+                                            $$.number = "ACC-0002";
+                                        });
+                    $.amount =          TypeUtils.scaledBigDecimal(88.00);
+                    $.currency =        EUR;
+                    $.transactionDate = LocalDateTime.parse("2023-10-10T10:10");
+                }),
+                TransactionHistoryRecordProjection.buildWith($ -> {
+                    $.transactionId =   transactions.get(2).getId();
+                    $.direction =       TransactionHistoryRecordProjection.Direction.INBOUND;
+                    $.peerAccount =     TransactionHistoryRecordProjection.AccountBaseInfoProjection.buildWith($$ -> {
+                                            $$.id = audAccount.getId();
+                                            $$.number = "ACC-0003";
+                                        });
+                    $.amount =          TypeUtils.scaledBigDecimal(20.00);
+                    $.currency =        EUR;
+                    $.transactionDate = LocalDateTime.parse("2023-09-09T09:09");
+                })
+            );
+        // @formatter:on
+    }
+
+    @Test
+    void shouldMergeSentAndReceivedTransactionsIntoPages() {
+        var received = save(transactionsBetween(eurAccount, usdAccount, 25, "2020-01-01T00:00"));
+        var sent = save(transactionsBetween(usdAccount, audAccount, 30, "2022-01-01T00:00"));
+        var accId = usdAccount.getId();
+        var ids = latestFirstIds(sent, received);
+
+        assertThat(idsOf(transactionHistoryRepository.findPage(accId, 0, 10))).isEqualTo(ids.subList(0, 10));
+        assertThat(idsOf(transactionHistoryRepository.findPage(accId, 25, 10))).isEqualTo(ids.subList(25, 35));
+        assertThat(idsOf(transactionHistoryRepository.findPage(accId, 50, 10))).isEqualTo(ids.subList(50, 55));
+
+        var firstPage = transactionHistoryRepository.findLatestPage(accId, 28);
+        var secondPage = seekAfter(accId, firstPage, 28);
+
+        assertThat(idsOf(firstPage)).isEqualTo(ids.subList(0, 28));
+        assertThat(idsOf(secondPage)).isEqualTo(ids.subList(28, 55));
+    }
+
+    @Test
+    void shouldSeekPages() {
+        var accId = eurAccount.getId();
+        var ids = latestFirstIds(save(transactionsBetween(eurAccount, usdAccount, 25, "2020-01-01T00:00")));
+
+        var firstPage = transactionHistoryRepository.findLatestPage(accId, 10);
+        var secondPage = seekAfter(accId, firstPage, 10);
+        var thirdPage = seekAfter(accId, secondPage, 10);
+
+        assertThat(idsOf(firstPage)).isEqualTo(ids.subList(0, 10));
+        assertThat(idsOf(secondPage)).isEqualTo(ids.subList(10, 20));
+        assertThat(idsOf(thirdPage)).isEqualTo(ids.subList(20, 25));
+        assertThat(seekAfter(accId, thirdPage, 10)).isEmpty();
+    }
+
+    @Test
+    void shouldSeekPages_whenTransactionsShareDate() {
+        var sameDateTransactions = transactionsBetween(audAccount, eurAccount, 3, "2024-01-01T00:00");
+        sameDateTransactions.forEach(tx -> tx.setTransactionDate(LocalDateTime.parse("2024-01-01T00:00")));
+        var ids = idsOfTransactions(save(sameDateTransactions));
+
+        var firstPage = transactionHistoryRepository.findLatestPage(audAccount.getId(), 2);
+        var secondPage = seekAfter(audAccount.getId(), firstPage, 2);
+
+        assertThat(idsOf(firstPage)).containsExactly(ids.get(2), ids.get(1));
+        assertThat(idsOf(secondPage)).containsExactly(ids.get(0));
+    }
+
+    private List<TransactionHistoryRecordProjection> seekAfter(
+        Integer accountId,
+        List<TransactionHistoryRecordProjection> page,
+        int limit
+    ) {
+        var last = page.get(page.size() - 1);
+        return
+            transactionHistoryRepository.findPageBefore(accountId, last.transactionDate(), last.transactionId(), limit);
+    }
+
+    private List<Transaction> save(Transaction... transactions) {
+        return save(List.of(transactions));
+    }
+
+    private List<Transaction> save(List<Transaction> transactions) {
+        return transactionRepository.saveAllAndFlush(transactions);
+    }
+
+    @SafeVarargs
+    private static List<Integer> latestFirstIds(List<Transaction>... transactionsOldestFirst) {
+        return
+            Stream.of(transactionsOldestFirst)
+                .map(List::reversed)
+                .flatMap(Collection::stream)
+                .map(Transaction::getId)
+                .toList();
+    }
+
+    private static List<Integer> idsOfTransactions(List<Transaction> transactions) {
+        return transactions.stream().map(Transaction::getId).toList();
+    }
+
+    private static List<Integer> idsOf(List<TransactionHistoryRecordProjection> records) {
+        return records.stream().map(TransactionHistoryRecordProjection::transactionId).toList();
+    }
+
+    private static List<Transaction> transactionsBetween(
+        Account senderAccount,
+        Account receiverAccount,
+        int count,
+        String initialTransactionDate
+    ) {
+        return
+            IntStream.rangeClosed(1, count)
+                .mapToObj(increment ->
+                    TransactionTestFactory.transactionWith(
+                        senderAccount,
+                        receiverAccount,
+                        increment,
+                        increment,
+                        LocalDateTime.parse(initialTransactionDate).plusHours(increment)
+                    )
+                )
+                .toList();
+    }
+}
@@ -55,8 +55,8 @@ class TransactionRepositoryTest {
     }
 
     @Test
-    void shouldReturnAllTransactionsRelatedToAccount() {
-        var expectedUsdAccountTransactions =
+    void shouldReturnAllTransactions() {
+        var expectedTransactions =
             Stream.of(eurToUsdTransactions, usdToAudTransactions)
                 .flatMap(Collection::stream)
                 .sorted(Comparator.comparing(Transaction::getTransactionDate))
@@ -64,36 +64,39 @@ class TransactionRepositoryTest {
 
         var pageRequest = (Pageable) OffsetLimitPageRequest.of(0, 100, Sort.by("transactionDate"));
 
-        verifyPage(usdAccount.getId(), pageRequest, 55, 55, expectedUsdAccountTransactions);
+        verifyPage(pageRequest, 55, 55, expectedTransactions);
     }
 
     @Test
-    void shouldReturnPageableTransactionHistory() {
-        var accId = eurAccount.getId();
+    void shouldReturnPageableTransactions() {
         // expected transactions
-        var txs = eurToUsdTransactions.reversed();
-        var pageRequest = (Pageable) OffsetLimitPageRequest.of(0, 10, Sort.by("transactionDate").descending());
+        var txs =
+            Stream.of(usdToAudTransactions.reversed(), eurToUsdTransactions.reversed())
+                .flatMap(Collection::stream)
+                .toList();
+        var sort = Sort.by("transactionDate").descending();
+        var pageRequest = (Pageable) OffsetLimitPageRequest.of(0, 10, sort);
 
         // @formatter:off
-        var firstPage  = verifyPage(accId, pageRequest,                   10, 25, txs.subList( 0, 10));
-        var secondPage = verifyPage(accId, firstPage.next(),              10, 25, txs.subList(10, 20));
-        var thirdPage  = verifyPage(accId, secondPage.next(),             5,  25, txs.subList(20, 25));
-
-                         verifyPage(accId, thirdPage.previousOrFirst(),  10,  25, txs.subList(10, 20));
-                         verifyPage(accId, secondPage.previousOrFirst(), 10,  25, txs.subList( 0, 10));
-                         verifyPage(accId, thirdPage.first(),            10,  25, txs.subList( 0, 10));
-                         verifyPage(accId, thirdPage.next(),              0,  25, List.of());
+        var firstPage  = verifyPage(pageRequest,                        10, 55, txs.subList( 0, 10));
+        var secondPage = verifyPage(firstPage.next(),                   10, 55, txs.subList(10, 20));
+        var thirdPage  = verifyPage(secondPage.next(),                  10, 55, txs.subList(20, 30));
+
+                         verifyPage(thirdPage.previousOrFirst(),        10, 55, txs.subList(10, 20));
+                         verifyPage(secondPage.previousOrFirst(),       10, 55, txs.subList( 0, 10));
+                         verifyPage(thirdPage.first(),                  10, 55, txs.subList( 0, 10));
+        var lastPage   = verifyPage(OffsetLimitPageRequest.of(50, 10, sort), 5, 55, txs.subList(50, 55));
+                         verifyPage(lastPage.next(),                     0, 55, List.of());
         // @formatter:on
     }
 
     private Pageable verifyPage(
-        Integer accountId,
         Pageable pageable,
         int expectedNumberOfElementsOnPage,
         int expectedTotalElements,
         List<Transaction> expectedTransactions
     ) {
-        var page = transactionRepository.findAllBySenderAccountIdOrReceiverAccountId(accountId, pageable);
+        var page = transactionRepository.findAll(pageable);
 
         var transactions = page.getContent();
         Assertions.assertThat(transactions).containsExactlyElementsOf(expectedTransactions);
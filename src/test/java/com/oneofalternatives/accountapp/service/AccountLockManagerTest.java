@@ -0,0 +1,105 @@
+package com.oneofalternatives.accountapp.service;
+
+import com.oneofalternatives.accountapp.error.AccountLockTimeoutError;
+import com.oneofalternatives.accountapp.settings.AccountLockSettings;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AccountLockManagerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AccountLockManager lockManager;
+
+    @BeforeEach
+    void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+        lockManager = new AccountLockManager(new AccountLockSettings(4, Duration.ofMillis(100)), meterRegistry);
+    }
+
+    @Test
+    void withLocks_shouldRunAction_whenAccountsShareStripe() {
+        assertThat(lockManager.stripeOf(1)).isEqualTo(lockManager.stripeOf(5));
+
+        assertThat(lockManager.withLocks(List.of(1, 5), () -> "done")).isEqualTo("done");
+    }
+
+    @Test
+    void withLocks_shouldTimeOutAndCountContention_whenStripeIsHeldByAnotherTransfer() throws Exception {
+        var locked = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var executor = Executors.newSingleThreadExecutor();
+
+        try {
+            executor.submit(() ->
+                lockManager.withLocks(List.of(2), () -> {
+                    locked.countDown();
+                    return awaitQuietly(release);
+                })
+            );
+            locked.await();
+
+            assertThatThrownBy(() -> lockManager.withLocks(List.of(1, 2), () -> "done"))
+                .isInstanceOf(AccountLockTimeoutError.class)
+                .hasMessage("Account is busy with other transfers, try again later");
+
+            assertThat(meterRegistry.get("account.lock.contended").tag("stripe", "2").counter().count()).isEqualTo(1);
+            assertThat(meterRegistry.get("account.lock.timeouts").counter().count()).isEqualTo(1);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+
+        assertThat(lockManager.withLocks(List.of(1), () -> "done")).isEqualTo("done");
+    }
+
+    @Test
+    void withLocks_shouldNotDeadlock_whenTransfersGoInOppositeDirections() throws Exception {
+        var patientLockManager = new AccountLockManager(new AccountLockSettings(4, Duration.ofSeconds(5)), meterRegistry);
+        var executor = Executors.newFixedThreadPool(2);
+        var completed = new AtomicInteger();
+
+        try {
+            List<Future<?>> transfers =
+                List.of(
+                    executor.submit(() -> transferRepeatedly(patientLockManager, List.of(1, 2), completed)),
+                    executor.submit(() -> transferRepeatedly(patientLockManager, List.of(2, 1), completed))
+                );
+
+            for (var transfer : transfers) {
+                transfer.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(completed).hasValue(2_000);
+        assertThat(meterRegistry.get("account.lock.timeouts").counter().count()).isZero();
+    }
+
+    private static void transferRepeatedly(AccountLockManager lockManager, List<Integer> accountIds, AtomicInteger completed) {
+        for (var i = 0; i < 1_000; i++) {
+            lockManager.withLocks(accountIds, completed::incrementAndGet);
+        }
+    }
+
+    private static boolean awaitQuietly(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.oneofalternatives.accountapp.service;
+
+import com.oneofalternatives.accountapp.api.TransactionHistoryRecordProjection;
+import com.oneofalternatives.accountapp.api.TransactionHistoryRecordProjection.AccountBaseInfoProjection;
+import com.oneofalternatives.accountapp.api.TransactionHistoryRecordProjection.Direction;
+import com.oneofalternatives.accountapp.settings.TransactionHistoryCacheSettings;
+import com.oneofalternatives.accountapp.util.TypeUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.stream.IntStream;
+
+import static com.oneofalternatives.accountapp.util.Currencies.EUR;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionHistoryCacheTest {
+
+    private static final int CAPACITY = 3;
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private SimpleMeterRegistry meterRegistry;
+    private TransactionHistoryCache cache;
+    private List<Integer> loadedCounts;
+
+    @BeforeEach
+    void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache =
+            new TransactionHistoryCache(
+                new TransactionHistoryCacheSettings(true, CAPACITY, 100, Duration.ofMinutes(1)),
+                meterRegistry,
+                nanos::get
+            );
+        loadedCounts = new ArrayList<>();
+    }
+
+    @Test
+    void findLatest_shouldLoadHeadOnceAndServeFollowingPagesFromIt() {
+        var history = history(5);
+
+        assertThat(cache.findLatest(1, 0, 2, loaderOf(history))).contains(history.subList(0, 2));
+        assertThat(cache.findLatest(1, 1, 2, loaderOf(history))).contains(history.subList(1, 3));
+
+        assertThat(loadedCounts).containsExactly(CAPACITY + 1);
+        assertThat(requests("hit")).isEqualTo(1);
+        assertThat(requests("miss")).isEqualTo(1);
+    }
+
+    @Test
+    void findLatest_shouldNotServePage_whenItDoesNotFitIntoHead() {
+        assertThat(cache.findLatest(1, 2, 2, loaderOf(history(5)))).isEmpty();
+
+        assertThat(loadedCounts).isEmpty();
+        assertThat(requests("miss")).isZero();
+    }
+
+    @Test
+    void record_shouldAddTransactionToLoadedHeadOnly() {
+        var history = history(2);
+        cache.findLatest(1, 0, 1, loaderOf(history));
+
+        var newest = historyRecord(10, "2024-02-01T00:00");
+        cache.record(1, newest);
+        cache.record(1, newest);
+        cache.record(2, newest);
+
+        assertThat(cache.findLatest(1, 0, 3, loaderOf(history)))
+            .contains(List.of(newest, history.get(0), history.get(1)));
+        assertThat(loadedCounts).containsExactly(CAPACITY + 1);
+
+        assertThat(cache.findLatest(2, 0, 3, loaderOf(List.of()))).contains(List.of());
+    }
+
+    @Test
+    void record_shouldDropOldestTransaction_whenHeadIsFull() {
+        var history = history(5);
+        cache.findLatest(1, 0, 1, loaderOf(history));
+
+        var newest = historyRecord(10, "2024-02-01T00:00");
+        cache.record(1, newest);
+
+        assertThat(cache.findLatest(1, 0, 3, loaderOf(history)))
+            .contains(List.of(newest, history.get(0), history.get(1)));
+    }
+
+    @Test
+    void evict_shouldReloadHeadOnNextRead() {
+        var history = history(1);
+        cache.findLatest(1, 0, 1, loaderOf(history));
+
+        cache.evict(1);
+        cache.findLatest(1, 0, 1, loaderOf(history));
+
+        assertThat(loadedCounts).hasSize(2);
+    }
+
+    @Test
+    void record_shouldNotExtendTimeToLiveOfHead() {
+        var history = history(1);
+        cache.findLatest(1, 0, 1, loaderOf(history));
+
+        nanos.addAndGet(Duration.ofSeconds(40).toNanos());
+        cache.record(1, historyRecord(10, "2024-02-01T00:00"));
+        nanos.addAndGet(Duration.ofSeconds(30).toNanos());
+
+        assertThat(cache.findLatest(1, 0, 1, loaderOf(history))).contains(history);
+        assertThat(loadedCounts).hasSize(2);
+    }
+
+    private BiFunction<Integer, Integer, List<TransactionHistoryRecordProjection>> loaderOf(
+        List<TransactionHistoryRecordProjection> history
+    ) {
+        return (accountId, count) -> {
+            loadedCounts.add(count);
+            return history.subList(0, Math.min(count, history.size()));
+        };
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("transaction.history.cache.requests").tag("result", result).counter().count();
+    }
+
+    /**
+     * Latest first, one transaction per day of January 2024.
+     */
+    private static List<TransactionHistoryRecordProjection> history(int size) {
+        return
+            IntStream.iterate(size, id -> id > 0, id -> id - 1)
+                .mapToObj(id -> historyRecord(id, LocalDateTime.parse("2024-01-01T00:00").plusDays(id).toString()))
+                .toList();
+    }
+
+    private static TransactionHistoryRecordProjection historyRecord(Integer transactionId, String transactionDate) {
+        return
+            new TransactionHistoryRecordProjection(
+                transactionId,
+                new AccountBaseInfoProjection(2, "ACC-0002"),
+                Direction.OUTBOUND,
+                TypeUtils.scaledBigDecimal(1.00),
+                EUR,
+                LocalDateTime.parse(transactionDate)
+            );
+    }
+}
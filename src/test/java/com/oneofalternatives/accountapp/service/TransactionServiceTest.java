@@ -1,35 +1,48 @@
 package com.oneofalternatives.accountapp.service;
 
+import com.oneofalternatives.accountapp.api.FundTransferRequestProjection;
+import com.oneofalternatives.accountapp.api.FundTransferResultProjection;
+import com.oneofalternatives.accountapp.api.FxQuoteProjection;
+import com.oneofalternatives.accountapp.api.TransactionHistoryCursor;
 import com.oneofalternatives.accountapp.api.TransactionHistoryRecordProjection;
 import com.oneofalternatives.accountapp.error.FundTransferValidationError;
+import com.oneofalternatives.accountapp.error.PaginationValidationError;
 import com.oneofalternatives.accountapp.integration.CurrencyConversionClient;
 import com.oneofalternatives.accountapp.model.Account;
 import com.oneofalternatives.accountapp.model.Transaction;
 import com.oneofalternatives.accountapp.repository.AccountRepository;
+import com.oneofalternatives.accountapp.repository.TransactionHistoryRepository;
 import com.oneofalternatives.accountapp.repository.TransactionRepository;
+import com.oneofalternatives.accountapp.settings.AccountLockSettings;
 import com.oneofalternatives.accountapp.settings.MoneySettings;
-import com.oneofalternatives.accountapp.util.TransactionTestFactory;
+import com.oneofalternatives.accountapp.settings.TransactionHistoryCacheSettings;
+import com.oneofalternatives.accountapp.settings.TransferBatchSettings;
+import com.oneofalternatives.accountapp.settings.TransferRetrySettings;
 import com.oneofalternatives.accountapp.util.TypeUtils;
-import org.assertj.core.api.Assertions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
-import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
+import org.mockito.Answers;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.stubbing.Answer;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Stream;
 
 import static com.oneofalternatives.accountapp.util.AccountTestFactory.accountWith;
@@ -39,7 +52,6 @@ import static java.time.temporal.ChronoUnit.SECONDS;
 import static org.assertj.core.api.Assertions.*;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -48,76 +60,81 @@ class TransactionServiceTest {
     @Mock
     private TransactionRepository transactionRepository;
     @Mock
-    private AccountRepository accountRepository;
+    private TransactionHistoryRepository transactionHistoryRepository;
     @Mock
+    private AccountRepository accountRepository;
+    @Mock(answer = Answers.CALLS_REAL_METHODS)
     private CurrencyConversionClient currencyConversionClient;
     @Mock
+    private FxQuoteStore fxQuoteStore;
+    @Mock
     private MoneySettings moneySettings;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
 
-    @InjectMocks
     private TransactionService transactionService;
 
+    @BeforeEach
+    void beforeEach() {
+        var transferBatchSettings = new TransferBatchSettings(1, 3);
+
+        transactionService =
+            new TransactionService(
+                transactionRepository,
+                transactionHistoryRepository,
+                new TransactionHistoryCache(
+                    new TransactionHistoryCacheSettings(false, 0, 0, Duration.ZERO),
+                    new SimpleMeterRegistry()
+                ),
+                accountRepository,
+                currencyConversionClient,
+                fxQuoteStore,
+                new FundTransferLedger(accountRepository, transactionRepository, jdbcTemplate),
+                new AccountLockManager(new AccountLockSettings(4, Duration.ofSeconds(1)), new SimpleMeterRegistry()),
+                new TransferRetryPolicy(new TransferRetrySettings(1, Duration.ZERO, Duration.ZERO), new SimpleMeterRegistry()),
+                new TransferBatchScheduler(transferBatchSettings),
+                transferBatchSettings,
+                moneySettings
+            );
+    }
+
     @Test
-    void getTransactionHistoryByAccountId_shouldMapTransactionAndAccountData() {
-        var eurAccount = accountWith(1, 1, "ACC-0001", 100.00, EUR);
-        var usdAccount = accountWith(2, 1, "ACC-0002", 090.00, USD);
-        var audAccount = accountWith(3, 2, "ACC-0003", 080.00, AUD);
-
-        when(transactionRepository.findAllBySenderAccountIdOrReceiverAccountId(eq(1), any()))
-            .thenReturn(
-                new PageImpl<>(
-                    List.of(
-                        TransactionTestFactory.transactionWith(3, eurAccount, usdAccount, 25.00, 35.00, "2023-11-11T11:11"),
-                        TransactionTestFactory.transactionWith(2, usdAccount, eurAccount, 77.00, 88.00, "2023-10-10T10:10"),
-                        TransactionTestFactory.transactionWith(1, audAccount, eurAccount, 10.00, 20.00, "2023-09-09T09:09")
-                    ),
-                    PageRequest.ofSize(5),
-                    3
-                )
+    void getTransactionHistoryByAccountId_shouldReturnRecordsUpToLimitAndTotalFromCounter() {
+        var records =
+            List.of(
+                historyRecord(3, "2023-11-11T11:11"),
+                historyRecord(2, "2023-10-10T10:10"),
+                historyRecord(1, "2023-09-09T09:09")
             );
 
-        var page = transactionService.getTransactionHistoryByAccountId(1, 0, 10);
+        when(transactionHistoryRepository.findPage(1, 0L, 3))
+            .thenReturn(records);
+        when(accountRepository.findTransactionCountById(1))
+            .thenReturn(Optional.of(5L));
 
-        // @formatter:off
-        Assertions.assertThat(page.content())
-            .containsExactly(
-                TransactionHistoryRecordProjection.buildWith($ -> {
-                    $.transactionId =   3;
-                    $.direction =       TransactionHistoryRecordProjection.Direction.OUTBOUND;
-                    $.peerAccount =     TransactionHistoryRecordProjection.AccountBaseInfoProjection.buildWith($$ -> {
-                                            $$.id = 2;
-                                            $$.number = "ACC-0002";
-                                        });
-                    $.amount =          TypeUtils.scaledBigDecimal(25.00);
-                    $.currency =        EUR;
-                    $.transactionDate = LocalDateTime.parse("2023-11-11T11:11");
-                }),
-                TransactionHistoryRecordProjection.buildWith($ -> {
-                    $.transactionId =   2;
-                    $.direction =       TransactionHistoryRecordProjection.Direction.INBOUND;
-                    $.peerAccount =     TransactionHistoryRecordProjection.AccountBaseInfoProjection.buildWith($$ -> {
-                                            $$.id = 2;
-                                            $$.number = "ACC-0002";
-                                        });
-                    $.amount =          TypeUtils.scaledBigDecimal(88.00);
-                    $.currency =        EUR;
-                    $.transactionDate = LocalDateTime.parse("2023-10-10T10:10");
-                }),
-                TransactionHistoryRecordProjection.buildWith($ -> {
-                    $.transactionId =   1;
-                    $.direction =       TransactionHistoryRecordProjection.Direction.INBOUND;
-                    $.peerAccount =     TransactionHistoryRecordProjection.AccountBaseInfoProjection.buildWith($$ -> {
-                                            $$.id = 3;
-                                            $$.number = "ACC-0003";
-                                        });
-                    $.amount =          TypeUtils.scaledBigDecimal(20.00);
-                    $.currency =        EUR;
-                    $.transactionDate = LocalDateTime.parse("2023-09-09T09:09");
-                })
-            );
-        // @formatter:on
+        var page = transactionService.getTransactionHistoryByAccountId(1, 0, 2, true);
 
-        verifyNoMoreInteractions(accountRepository, transactionRepository);
+        assertThat(page.content()).containsExactlyElementsOf(records.subList(0, 2));
+        assertThat(page.numberOfElements()).isEqualTo(2);
+        assertThat(page.totalElements()).isEqualTo(5);
+        assertThat(page.totalPages()).isEqualTo(3);
+        assertThat(page.isFirst()).isTrue();
+        assertThat(page.isLast()).isFalse();
+
+        verifyNoMoreInteractions(accountRepository, transactionHistoryRepository);
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void getTransactionHistoryByAccountId_shouldNotReadTotal_whenNotRequested() {
+        when(transactionHistoryRepository.findPage(1, 0L, 11))
+            .thenReturn(List.of());
+
+        var page = transactionService.getTransactionHistoryByAccountId(1, 0, 10, false);
+
+        assertThat(page.totalElements()).isNull();
+        assertThat(page.totalPages()).isNull();
+        verifyNoInteractions(accountRepository);
     }
 
     @Test
@@ -227,6 +244,10 @@ class TransactionServiceTest {
 
         when(accountRepository.findAllById(any()))
             .thenReturn(List.of(eurAccount, usdAccount));
+        when(accountRepository.debit(any(), any(), any(), any()))
+            .thenReturn(0);
+        when(accountRepository.findById(1))
+            .thenReturn(Optional.of(eurAccount));
 
         var exception = catchThrowable(() -> transactionService.transferFunds(1, 2, BigDecimal.valueOf(10.0000000001)));
 
@@ -245,6 +266,10 @@ class TransactionServiceTest {
 
         when(accountRepository.findAllById(any()))
             .thenReturn(List.of(eurAccount, usdAccount));
+        when(accountRepository.debit(any(), any(), any(), any()))
+            .thenReturn(1);
+        when(accountRepository.credit(any(), any(), any(), any()))
+            .thenReturn(1);
 
         when(transactionRepository.save(any()))
             .thenAnswer((Answer<Transaction>) invocation -> {
@@ -265,12 +290,8 @@ class TransactionServiceTest {
             softly.assertThat(transaction.getTransactionDate()).isCloseTo(LocalDateTime.now(), within(1, SECONDS));
         });
 
-        //noinspection unchecked
-        ArgumentCaptor<Iterable<Account>> updatedAccountCaptor = ArgumentCaptor.forClass(Iterable.class);
-        verify(accountRepository).saveAll(updatedAccountCaptor.capture());
-        var updatedAccounts = updatedAccountCaptor.getValue();
-        assertThat(updatedAccounts)
-            .containsExactlyInAnyOrder(eurAccount, usdAccount);
+        verify(accountRepository).debit(1, EUR, BigDecimal.valueOf(10.00), null);
+        verify(accountRepository).credit(2, EUR, BigDecimal.valueOf(10.00), null);
 
         verifyNoMoreInteractions(accountRepository, transactionRepository);
         verifyNoInteractions(currencyConversionClient);
@@ -290,6 +311,10 @@ class TransactionServiceTest {
 
         when(accountRepository.findAllById(any()))
             .thenReturn(List.of(eurAccount, usdAccount));
+        when(accountRepository.debit(any(), any(), any(), any()))
+            .thenReturn(1);
+        when(accountRepository.credit(any(), any(), any(), any()))
+            .thenReturn(1);
 
         when(currencyConversionClient.getSupportedCurrencies())
             .thenReturn(Set.of(EUR, USD, AUD));
@@ -321,13 +346,215 @@ class TransactionServiceTest {
             softly.assertThat(transaction.getTransactionDate()).isCloseTo(now, within(1, SECONDS));
         });
 
-        //noinspection unchecked
-        ArgumentCaptor<Iterable<Account>> updatedAccountCaptor = ArgumentCaptor.forClass(Iterable.class);
-        verify(accountRepository).saveAll(updatedAccountCaptor.capture());
-        var updatedAccounts = updatedAccountCaptor.getValue();
-        assertThat(updatedAccounts)
-            .containsExactlyInAnyOrder(eurAccount, usdAccount);
+        verify(accountRepository).debit(1, EUR, TypeUtils.scaledBigDecimal(8.9285714286), null);
+        verify(accountRepository).credit(2, USD, BigDecimal.valueOf(10.00), null);
 
+        verify(currencyConversionClient).getReciprocalRate(EUR, USD);
         verifyNoMoreInteractions(accountRepository, currencyConversionClient, transactionRepository);
     }
+
+    @Test
+    void getTransactionHistoryByAccountIdAndCursor_shouldReturnCursorOfLastTransaction_whenMoreTransactionsExist() {
+        when(transactionHistoryRepository.findLatestPage(1, 3))
+            .thenReturn(List.of(
+                historyRecord(3, "2024-01-03T00:00"),
+                historyRecord(2, "2024-01-02T00:00"),
+                historyRecord(1, "2024-01-01T00:00")
+            ));
+
+        var page = transactionService.getTransactionHistoryByAccountIdAndCursor(1, null, 2);
+
+        assertThat(page.content())
+            .extracting(TransactionHistoryRecordProjection::transactionId)
+            .containsExactly(3, 2);
+        assertThat(page.isLast()).isFalse();
+        assertThat(TransactionHistoryCursor.decode(page.nextCursor()))
+            .isEqualTo(new TransactionHistoryCursor(LocalDateTime.parse("2024-01-02T00:00"), 2));
+    }
+
+    @Test
+    void getTransactionHistoryByAccountIdAndCursor_shouldThrowException_whenCursorIsInvalid() {
+        var exception =
+            catchThrowable(() -> transactionService.getTransactionHistoryByAccountIdAndCursor(1, "not-a-cursor", 10));
+
+        assertThat(exception)
+            .isInstanceOf(PaginationValidationError.class)
+            .hasMessage("Invalid cursor: not-a-cursor");
+        verifyNoInteractions(transactionHistoryRepository);
+    }
+
+    @Test
+    void transferFunds_shouldUseQuotedAmountWithoutCurrencyConversion() {
+        var quoteId = UUID.randomUUID();
+
+        when(moneySettings.scale())
+            .thenReturn(SCALE);
+
+        var eurAccount = accountWith(1, 10, "ACC-0001", 100.00, EUR);
+        var usdAccount = accountWith(2, 11, "ACC-0002", 100.00, USD);
+
+        var quote = quote(quoteId, 10.00);
+
+        when(fxQuoteStore.find(quoteId))
+            .thenReturn(Optional.of(quote));
+        when(fxQuoteStore.take(quoteId))
+            .thenReturn(Optional.of(quote));
+        when(accountRepository.findAllById(any()))
+            .thenReturn(List.of(eurAccount, usdAccount));
+        when(accountRepository.debit(any(), any(), any(), any()))
+            .thenReturn(1);
+        when(accountRepository.credit(any(), any(), any(), any()))
+            .thenReturn(1);
+        when(transactionRepository.save(any()))
+            .thenAnswer((Answer<Transaction>) invocation -> invocation.getArgument(0));
+
+        var transaction = transactionService.transferFunds(1, 2, BigDecimal.valueOf(10.00), quoteId);
+
+        assertThat(transaction.getSourceAmount()).isEqualTo(TypeUtils.scaledBigDecimal(8.9285714286));
+        assertThat(transaction.getTargetAmount()).isEqualTo(BigDecimal.valueOf(10.00));
+        verify(accountRepository).debit(1, EUR, TypeUtils.scaledBigDecimal(8.9285714286), null);
+        verify(fxQuoteStore, never()).restore(any());
+        verifyNoInteractions(currencyConversionClient);
+    }
+
+    @Test
+    void transferFunds_shouldKeepQuote_whenTransferDoesNotMatchIt() {
+        var quoteId = UUID.randomUUID();
+
+        when(moneySettings.scale())
+            .thenReturn(SCALE);
+        when(fxQuoteStore.find(quoteId))
+            .thenReturn(Optional.of(quote(quoteId, 10.00)));
+        when(accountRepository.findAllById(any()))
+            .thenReturn(List.of(accountWith(1, 10, "ACC-0001", 100.00, EUR), accountWith(2, 11, "ACC-0002", 100.00, USD)));
+
+        var exception = catchThrowable(() -> transactionService.transferFunds(1, 2, BigDecimal.valueOf(20.00), quoteId));
+
+        assertThat(exception).isInstanceOf(FundTransferValidationError.class);
+        verify(fxQuoteStore, never()).take(any());
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void transferFunds_shouldRestoreQuote_whenLedgerRejectsTransfer() {
+        var quoteId = UUID.randomUUID();
+        var quote = quote(quoteId, 10.00);
+        var eurAccount = accountWith(1, 10, "ACC-0001", 5.00, EUR);
+
+        when(moneySettings.scale())
+            .thenReturn(SCALE);
+        when(fxQuoteStore.find(quoteId))
+            .thenReturn(Optional.of(quote));
+        when(fxQuoteStore.take(quoteId))
+            .thenReturn(Optional.of(quote));
+        when(accountRepository.findAllById(any()))
+            .thenReturn(List.of(eurAccount, accountWith(2, 11, "ACC-0002", 100.00, USD)));
+        when(accountRepository.debit(any(), any(), any(), any()))
+            .thenReturn(0);
+        when(accountRepository.findById(1))
+            .thenReturn(Optional.of(eurAccount));
+
+        var exception = catchThrowable(() -> transactionService.transferFunds(1, 2, BigDecimal.valueOf(10.00), quoteId));
+
+        assertThat(exception)
+            .isInstanceOf(FundTransferValidationError.class)
+            .hasMessage("Source account has insufficient balance");
+        verify(fxQuoteStore).restore(quote);
+    }
+
+    @Test
+    void transferFunds_shouldThrowException_whenQuoteDoesNotExistOrHasExpired() {
+        var quoteId = UUID.randomUUID();
+
+        when(moneySettings.scale())
+            .thenReturn(SCALE);
+        when(fxQuoteStore.find(quoteId))
+            .thenReturn(Optional.empty());
+
+        var exception = catchThrowable(() -> transactionService.transferFunds(1, 2, BigDecimal.valueOf(10.00), quoteId));
+
+        assertThat(exception)
+            .isInstanceOf(FundTransferValidationError.class)
+            .hasMessage("Quote " + quoteId + " does not exist or has expired");
+        verifyNoInteractions(accountRepository, transactionRepository, currencyConversionClient);
+    }
+
+    @Test
+    void transferFundsInBatch_shouldRejectBatch_whenItIsLargerThanMaximumSize() {
+        var transfer = new FundTransferRequestProjection(1, 2, BigDecimal.valueOf(10.00));
+
+        var exception =
+            catchThrowable(() -> transactionService.transferFundsInBatch(List.of(transfer, transfer, transfer, transfer)));
+
+        assertThat(exception)
+            .isInstanceOf(FundTransferValidationError.class)
+            .hasMessage("Batch must not contain more than 3 transfers");
+        verifyNoInteractions(accountRepository, transactionRepository);
+    }
+
+    @Test
+    void transferFundsInBatch_shouldReportTransferAsFailed_whenAmountIsNotPositive() {
+        var results =
+            transactionService.transferFundsInBatch(
+                List.of(
+                    new FundTransferRequestProjection(1, 2, BigDecimal.valueOf(-10.00)),
+                    new FundTransferRequestProjection(1, 2, BigDecimal.ZERO)
+                )
+            );
+
+        assertThat(results)
+            .containsExactly(
+                FundTransferResultProjection.failed(0, "Amount must be greater than 0"),
+                FundTransferResultProjection.failed(1, "Amount must be greater than 0")
+            );
+        verifyNoInteractions(transactionRepository, currencyConversionClient);
+    }
+
+    @Test
+    void transferFundsInBatch_shouldReportTransfersAsFailed_whenTheirGroupCannotBeRegistered() {
+        when(moneySettings.scale())
+            .thenReturn(SCALE);
+        when(accountRepository.findAllById(any()))
+            .thenReturn(List.of(accountWith(1, 1, "ACC-0001", 100.00, EUR), accountWith(2, 2, "ACC-0002", 0.00, EUR)));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+            .thenThrow(new DataIntegrityViolationException("Broken balance update"));
+
+        var results =
+            transactionService.transferFundsInBatch(List.of(new FundTransferRequestProjection(1, 2, BigDecimal.TEN)));
+
+        assertThat(results)
+            .containsExactly(FundTransferResultProjection.failed(0, "Transfer could not be registered, try again later"));
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void transferFundsInBatch_shouldReportMissingTransferAsFailed() {
+        var results = transactionService.transferFundsInBatch(Collections.singletonList(null));
+
+        assertThat(results)
+            .containsExactly(FundTransferResultProjection.failed(0, "Transfer must not be null"));
+        verifyNoInteractions(transactionRepository);
+    }
+
+    private static FxQuoteProjection quote(UUID quoteId, double targetAmount) {
+        return
+            new FxQuoteProjection(
+                quoteId, 1, 2,
+                TypeUtils.scaledBigDecimal(8.9285714286), EUR,
+                BigDecimal.valueOf(targetAmount), USD,
+                LocalDateTime.now().plusSeconds(30)
+            );
+    }
+
+    private static TransactionHistoryRecordProjection historyRecord(Integer transactionId, String transactionDate) {
+        return
+            TransactionHistoryRecordProjection.buildWith($ -> {
+                $.transactionId = transactionId;
+                $.direction = TransactionHistoryRecordProjection.Direction.OUTBOUND;
+                $.peerAccount = new TransactionHistoryRecordProjection.AccountBaseInfoProjection(2, "ACC-0002");
+                $.amount = TypeUtils.scaledBigDecimal(1.00);
+                $.currency = EUR;
+                $.transactionDate = LocalDateTime.parse(transactionDate);
+            });
+    }
 }
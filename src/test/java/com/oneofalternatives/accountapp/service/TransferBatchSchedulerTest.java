@@ -0,0 +1,167 @@
+package com.oneofalternatives.accountapp.service;
+
+import com.oneofalternatives.accountapp.settings.TransferBatchSettings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransferBatchSchedulerTest {
+
+    private TransferBatchScheduler scheduler;
+
+    @BeforeEach
+    void beforeEach() {
+        scheduler = new TransferBatchScheduler(new TransferBatchSettings(4, 100));
+    }
+
+    @AfterEach
+    void afterEach() {
+        scheduler.close();
+    }
+
+    @Test
+    void partition_shouldGroupTransfersConnectedThroughSharedAccounts() {
+        var transfers =
+            List.of(
+                new Pair(1, 2),
+                new Pair(3, 4),
+                new Pair(5, 6),
+                new Pair(2, 3),
+                new Pair(7, 6)
+            );
+
+        assertThat(TransferBatchScheduler.partition(transfers, Pair::accountIds))
+            .containsExactly(
+                List.of(0, 1, 3),
+                List.of(2, 4)
+            );
+    }
+
+    @Test
+    void pack_shouldSpreadGroupsOverAtMostGivenNumberOfBinsKeepingSubmissionOrder() {
+        var groups =
+            List.of(
+                List.of(0, 2, 4),
+                List.of(1),
+                List.of(3, 5)
+            );
+
+        assertThat(TransferBatchScheduler.pack(groups, 2))
+            .containsExactly(
+                List.of(0, 2, 4),
+                List.of(1, 3, 5)
+            );
+    }
+
+    @Test
+    void execute_shouldKeepSubmissionOrderPerGroupAndReturnResultsInItemOrder() {
+        var transfers =
+            List.of(
+                new Pair(1, 2),
+                new Pair(3, 4),
+                new Pair(2, 1),
+                new Pair(4, 3),
+                new Pair(1, 5)
+            );
+        var handledByGroup = new ConcurrentHashMap<Integer, List<Pair>>();
+
+        var results =
+            scheduler.execute(
+                transfers,
+                Pair::accountIds,
+                group -> {
+                    handledByGroup.put(group.get(0).sender(), List.copyOf(group));
+                    return group.stream().map(Pair::toString).toList();
+                }
+            );
+
+        assertThat(results).containsExactly(
+            "Pair[sender=1, receiver=2]",
+            "Pair[sender=3, receiver=4]",
+            "Pair[sender=2, receiver=1]",
+            "Pair[sender=4, receiver=3]",
+            "Pair[sender=1, receiver=5]"
+        );
+        assertThat(handledByGroup).isEqualTo(Map.of(
+            1, List.of(new Pair(1, 2), new Pair(2, 1), new Pair(1, 5)),
+            3, List.of(new Pair(3, 4), new Pair(4, 3))
+        ));
+    }
+
+    @Test
+    void execute_shouldRunIndependentGroupsOnExecutor() {
+        var threads = new CopyOnWriteArrayList<String>();
+
+        scheduler.execute(
+            List.of(new Pair(1, 2), new Pair(3, 4)),
+            Pair::accountIds,
+            group -> {
+                threads.add(Thread.currentThread().getName());
+                return group;
+            }
+        );
+
+        assertThat(threads).hasSize(2).allSatisfy(name -> assertThat(name).startsWith("transfer-batch-"));
+    }
+
+    @Test
+    void execute_shouldRethrowGroupFailure() {
+        assertThatThrownBy(() ->
+            scheduler.execute(
+                List.of(new Pair(1, 2), new Pair(3, 4)),
+                Pair::accountIds,
+                group -> {
+                    throw new IllegalArgumentException("Broken group");
+                }
+            )
+        )
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Broken group");
+    }
+
+    @Test
+    void execute_shouldCompleteEveryGroupBeforeRethrowingFailure() {
+        var completed = new CopyOnWriteArrayList<Integer>();
+
+        assertThatThrownBy(() ->
+            scheduler.execute(
+                List.of(new Pair(1, 2), new Pair(3, 4), new Pair(5, 6)),
+                Pair::accountIds,
+                group -> {
+                    if (group.get(0).sender() == 1) {
+                        throw new IllegalArgumentException("Broken group");
+                    }
+
+                    LockSupport.parkNanos(Duration.ofMillis(50).toNanos());
+                    completed.add(group.get(0).sender());
+                    return group;
+                }
+            )
+        )
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Broken group");
+
+        assertThat(completed).containsExactlyInAnyOrder(3, 5);
+    }
+
+    private record Pair(
+        int sender,
+        int receiver
+    ) {
+
+        Collection<Integer> accountIds() {
+            return List.of(sender, receiver);
+        }
+    }
+}
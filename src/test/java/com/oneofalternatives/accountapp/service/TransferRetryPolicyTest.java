@@ -0,0 +1,83 @@
+package com.oneofalternatives.accountapp.service;
+
+import com.oneofalternatives.accountapp.error.FundTransferValidationError;
+import com.oneofalternatives.accountapp.settings.TransferRetrySettings;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransferRetryPolicyTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TransferRetryPolicy retryPolicy;
+
+    @BeforeEach
+    void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+        retryPolicy =
+            new TransferRetryPolicy(
+                new TransferRetrySettings(3, Duration.ofMillis(1), Duration.ofMillis(5)),
+                meterRegistry
+            );
+    }
+
+    @Test
+    void execute_shouldRetryConflictingTransfer() {
+        var attempts = new AtomicInteger();
+
+        var result =
+            retryPolicy.execute(List.of(7, 8), () -> {
+                if (attempts.incrementAndGet() < 3) {
+                    throw new ObjectOptimisticLockingFailureException("Account", 7);
+                }
+                return "registered";
+            });
+
+        assertThat(result).isEqualTo("registered");
+        assertThat(attempts).hasValue(3);
+        assertThat(meterRegistry.get("account.transfer.conflicts").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("account.transfer.retries").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void execute_shouldRethrowConflict_whenAttemptsAreExhausted() {
+        var attempts = new AtomicInteger();
+
+        assertThatThrownBy(() ->
+            retryPolicy.execute(List.of(7, 8), () -> {
+                attempts.incrementAndGet();
+                throw new CannotAcquireLockException("Timeout trying to lock table");
+            })
+        )
+            .isInstanceOf(CannotAcquireLockException.class);
+
+        assertThat(attempts).hasValue(3);
+        assertThat(meterRegistry.get("account.transfer.conflicts").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("account.transfer.retries").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void execute_shouldNotRetryValidationError() {
+        var attempts = new AtomicInteger();
+
+        assertThatThrownBy(() ->
+            retryPolicy.execute(List.of(7, 8), () -> {
+                attempts.incrementAndGet();
+                throw new FundTransferValidationError("Source account has insufficient balance");
+            })
+        )
+            .isInstanceOf(FundTransferValidationError.class);
+
+        assertThat(attempts).hasValue(1);
+        assertThat(meterRegistry.get("account.transfer.conflicts").counter().count()).isZero();
+    }
+}